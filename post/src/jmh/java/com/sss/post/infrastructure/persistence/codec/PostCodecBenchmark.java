@@ -0,0 +1,122 @@
+package com.sss.post.infrastructure.persistence.codec;
+
+import com.mongodb.MongoClientSettings;
+import com.sss.post.domain.enumeration.PostStatus;
+import com.sss.post.domain.enumeration.PostType;
+import com.sss.post.domain.model.PollOption;
+import com.sss.post.domain.model.Post;
+import com.sss.post.domain.model.PostId;
+import com.sss.post.infrastructure.mapper.PostMapper;
+import com.sss.post.infrastructure.persistence.PostDocument;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * Compares the current read path (driver Document -> MappingMongoConverter ->
+ * PostDocument -> PostMapper -> Post) with decoding straight into {@link Post}
+ * through {@link PostCodec}.
+ * <p>
+ * Run with {@code -prof gc} to compare allocation per decoded post as well.
+ * Lives next to the user service's benchmarks under {@code src/jmh/java};
+ * the post module needs the same {@code me.champeau.jmh} setup to run it.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostCodecBenchmark {
+  
+  private final DecoderContext decoderContext = DecoderContext.builder().build();
+  
+  private BsonDocument bson;
+  private DocumentCodec documentCodec;
+  private MappingMongoConverter converter;
+  private PostMapper postMapper;
+  private PostCodec postCodec;
+  
+  @Setup
+  public void setUp() {
+    MongoMappingContext mappingContext = new MongoMappingContext();
+    mappingContext.afterPropertiesSet();
+    converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+    converter.afterPropertiesSet();
+    
+    postMapper = PostMapper.INSTANCE;
+    postCodec = new PostCodec();
+    documentCodec = new DocumentCodec(MongoClientSettings.getDefaultCodecRegistry());
+    
+    Document document = new Document();
+    converter.write(postMapper.toDocument(samplePost()), document);
+    bson = document.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+  }
+  
+  @Benchmark
+  public Post mappingConverterAndMapper() {
+    Document document = documentCodec.decode(new BsonDocumentReader(bson), decoderContext);
+    PostDocument postDocument = converter.read(PostDocument.class, document);
+    return postMapper.toDomain(postDocument);
+  }
+  
+  @Benchmark
+  public Post postCodec() {
+    return postCodec.decode(new BsonDocumentReader(bson), decoderContext);
+  }
+  
+  private Post samplePost() {
+    LocalDateTime now = LocalDateTime.now();
+    return Post.builder()
+        // ObjectId ids, as the default generator assigns them
+        .id(new PostId(new ObjectId().toHexString()))
+        .authorId("user-1")
+        .authorName("Nguyễn Văn A")
+        .authorAvatar("https://example.com/avatar1.jpg")
+        .title("Thăm dò: Bạn thích loại phim nào nhất?")
+        .content("Hãy cho tôi biết bạn thích loại phim nào nhất trong các lựa chọn dưới đây!")
+        .postType(PostType.POLL)
+        .status(PostStatus.PUBLISHED)
+        .imageUrls(List.of("https://example.com/image1.jpg", "https://example.com/image2.jpg"))
+        .pollOptions(List.of(
+            PollOption.builder().id(UUID.randomUUID().toString()).text("Hành động").voteCount(25).build(),
+            PollOption.builder().id(UUID.randomUUID().toString()).text("Tình cảm").voteCount(18).build(),
+            PollOption.builder().id(UUID.randomUUID().toString()).text("Hài hước").voteCount(32).build()
+        ))
+        .pollEndTime(now.plusDays(7))
+        .isPublic(true)
+        .tags(List.of("thăm dò", "phim ảnh", "sở thích"))
+        .likeCount(28)
+        .commentCount(15)
+        .shareCount(5)
+        .viewCount(180)
+        .createdAt(now)
+        .updatedAt(now)
+        .publishedAt(now)
+        .createdBy("user-1")
+        .build();
+  }
+}
@@ -2,6 +2,7 @@ package com.sss.post.application;
 
 import com.sss.post.domain.model.Post;
 import com.sss.post.domain.model.PostId;
+import com.sss.post.domain.model.PostIdGenerator;
 import com.sss.post.domain.enumeration.PostStatus;
 import com.sss.post.domain.enumeration.PostType;
 import com.sss.post.domain.exception.PostNotFoundException;
@@ -9,10 +10,13 @@ import com.sss.post.domain.repository.PostRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -25,14 +29,17 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class PostService {
   
+  private static final int MAX_SAVE_ATTEMPTS = 3;
+  
   private final PostRepository postRepository;
+  private final PostIdGenerator postIdGenerator;
   
   public Post createPost(Post post) {
     log.info("Creating new post for author: {}", post.getAuthorId());
     
     // Generate new ID if not provided
     if (post.getId() == null || post.getId().getValue() == null) {
-      post.setId(new PostId(UUID.randomUUID().toString()));
+      post.setId(postIdGenerator.nextId());
     }
     
     // Set default values
@@ -47,7 +54,7 @@ public class PostService {
       post.setStatus(PostStatus.DRAFT);
     }
     
-    Post savedPost = postRepository.save(post);
+    Post savedPost = postRepository.insert(post);
     log.info("Post created successfully with ID: {}", savedPost.getId().getValue());
     
     return savedPost;
@@ -67,12 +74,29 @@ public class PostService {
     return post.get();
   }
   
+  @Transactional(readOnly = true)
+  public List<Post> getPostsByIds(List<String> postIds) {
+    log.info("Fetching {} posts by ID", postIds.size());
+    
+    List<PostId> ids = postIds.stream()
+        .map(PostId::new)
+        .toList();
+    return postRepository.findAllById(ids);
+  }
+  
   @Transactional(readOnly = true)
   public List<Post> getAllPosts() {
     log.info("Fetching all posts");
     return postRepository.findAll();
   }
   
+  // The cursor outlives this call, so it must not be bound to a transaction
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public Stream<Post> streamPublicPosts(String authorId) {
+    log.info("Streaming public posts for author: {}", authorId);
+    return postRepository.streamPublicPosts(authorId);
+  }
+  
   @Transactional(readOnly = true)
   public List<Post> getPostsByAuthorId(String authorId) {
     log.info("Fetching posts for author: {}", authorId);
@@ -124,8 +148,13 @@ public class PostService {
   public Post updatePost(String postId, Post updatedPost) {
     log.info("Updating post with ID: {}", postId);
     
-    Post existingPost = getPostById(postId);
+    Post savedPost = modify(postId, existingPost -> applyUpdate(existingPost, updatedPost));
+    log.info("Post updated successfully with ID: {}", savedPost.getId().getValue());
     
+    return savedPost;
+  }
+  
+  private void applyUpdate(Post existingPost, Post updatedPost) {
     // Update fields
     if (updatedPost.getTitle() != null) {
       existingPost.setTitle(updatedPost.getTitle());
@@ -163,21 +192,15 @@ public class PostService {
     
     existingPost.setUpdatedAt(LocalDateTime.now());
     existingPost.setUpdatedBy(updatedPost.getAuthorId());
-    
-    Post savedPost = postRepository.save(existingPost);
-    log.info("Post updated successfully with ID: {}", savedPost.getId().getValue());
-    
-    return savedPost;
   }
   
   public Post publishPost(String postId) {
     log.info("Publishing post with ID: {}", postId);
     
-    Post post = getPostById(postId);
-    post.publish();
-    post.setUpdatedAt(LocalDateTime.now());
-    
-    Post savedPost = postRepository.save(post);
+    Post savedPost = modify(postId, post -> {
+      post.publish();
+      post.setUpdatedAt(LocalDateTime.now());
+    });
     log.info("Post published successfully with ID: {}", savedPost.getId().getValue());
     
     return savedPost;
@@ -186,10 +209,7 @@ public class PostService {
   public Post archivePost(String postId) {
     log.info("Archiving post with ID: {}", postId);
     
-    Post post = getPostById(postId);
-    post.archive();
-    
-    Post savedPost = postRepository.save(post);
+    Post savedPost = modify(postId, Post::archive);
     log.info("Post archived successfully with ID: {}", savedPost.getId().getValue());
     
     return savedPost;
@@ -198,10 +218,7 @@ public class PostService {
   public Post deletePost(String postId) {
     log.info("Deleting post with ID: {}", postId);
     
-    Post post = getPostById(postId);
-    post.delete();
-    
-    Post savedPost = postRepository.save(post);
+    Post savedPost = modify(postId, Post::delete);
     log.info("Post deleted successfully with ID: {}", savedPost.getId().getValue());
     
     return savedPost;
@@ -210,11 +227,8 @@ public class PostService {
   public Post likePost(String postId) {
     log.info("Liking post with ID: {}", postId);
     
-    Post post = getPostById(postId);
-    post.incrementLikeCount();
-    post.setUpdatedAt(LocalDateTime.now());
-    
-    Post savedPost = postRepository.save(post);
+    Post savedPost = postRepository.addLikes(new PostId(postId), 1)
+        .orElseThrow(() -> new PostNotFoundException("Post not found with ID: " + postId));
     log.info("Post liked successfully with ID: {}", savedPost.getId().getValue());
     
     return savedPost;
@@ -223,11 +237,8 @@ public class PostService {
   public Post unlikePost(String postId) {
     log.info("Unliking post with ID: {}", postId);
     
-    Post post = getPostById(postId);
-    post.decrementLikeCount();
-    post.setUpdatedAt(LocalDateTime.now());
-    
-    Post savedPost = postRepository.save(post);
+    Post savedPost = postRepository.addLikes(new PostId(postId), -1)
+        .orElseThrow(() -> new PostNotFoundException("Post not found with ID: " + postId));
     log.info("Post unliked successfully with ID: {}", savedPost.getId().getValue());
     
     return savedPost;
@@ -236,15 +247,34 @@ public class PostService {
   public Post incrementViewCount(String postId) {
     log.info("Incrementing view count for post with ID: {}", postId);
     
-    Post post = getPostById(postId);
-    post.incrementViewCount();
-    
-    Post savedPost = postRepository.save(post);
+    Post savedPost = postRepository.incrementViewCount(new PostId(postId))
+        .orElseThrow(() -> new PostNotFoundException("Post not found with ID: " + postId));
     log.info("View count incremented successfully for post with ID: {}", savedPost.getId().getValue());
     
     return savedPost;
   }
   
+  /**
+   * Reads the post, applies the change and saves it, starting over from a
+   * fresh read when a concurrent write wins the version check. Gives up with
+   * the {@link OptimisticLockingFailureException} after
+   * {@value #MAX_SAVE_ATTEMPTS} attempts.
+   */
+  private Post modify(String postId, Consumer<Post> change) {
+    for (int attempt = 1; ; attempt++) {
+      Post post = getPostById(postId);
+      change.accept(post);
+      try {
+        return postRepository.save(post);
+      } catch (OptimisticLockingFailureException e) {
+        if (attempt >= MAX_SAVE_ATTEMPTS) {
+          throw e;
+        }
+        log.debug("Post {} changed concurrently, retrying (attempt {})", postId, attempt);
+      }
+    }
+  }
+  
   public boolean existsById(String postId) {
     return postRepository.existsById(new PostId(postId));
   }
@@ -0,0 +1,40 @@
+package com.sss.post.config;
+
+import com.sss.post.infrastructure.cache.CacheInvalidationBus;
+import com.sss.post.infrastructure.cache.InvalidationMessage;
+import com.sss.post.infrastructure.cache.VersionedCache;
+import java.time.Duration;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Local {@code findById} cache for posts, kept coherent across nodes by the
+ * {@link CacheInvalidationBus}.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Configuration
+public class CacheConfig {
+  
+  @Bean
+  public VersionedCache<RawBsonDocument> postCache(
+      CacheInvalidationBus invalidationBus,
+      @Value("${app.cache.post.ttl:60s}") Duration ttl,
+      @Value("${app.cache.post.max-size:10000}") int maxSize) {
+    // Posts are cached encoded, so every hit decodes a private copy callers may mutate
+    VersionedCache<RawBsonDocument> cache = new VersionedCache<>(
+        document -> document.getNumber("version").longValue(), ttl, maxSize);
+    
+    invalidationBus.subscribe(InvalidationMessage.POST,
+        message -> cache.invalidate(message.id(), message.version()));
+    invalidationBus.subscribe(InvalidationMessage.POST_AUTHOR,
+        message -> cache.invalidateIf(document ->
+            document.get("author_id") instanceof BsonString authorId && message.id().equals(authorId.getValue())));
+    invalidationBus.onResync(cache::clear);
+    return cache;
+  }
+}
@@ -0,0 +1,37 @@
+package com.sss.post.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoCollection;
+import com.sss.post.domain.model.Post;
+import com.sss.post.infrastructure.persistence.codec.PostCodec;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Registers {@link PostCodec} with the Mongo driver and exposes a typed
+ * collection for the read paths that bypass MappingMongoConverter.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Configuration
+public class MongoCodecConfig {
+  
+  public static final String POSTS_COLLECTION = "posts";
+  
+  @Bean
+  public MongoClientSettingsBuilderCustomizer postCodecCustomizer() {
+    return builder -> builder.codecRegistry(CodecRegistries.fromRegistries(
+        CodecRegistries.fromCodecs(new PostCodec()),
+        MongoClientSettings.getDefaultCodecRegistry()
+    ));
+  }
+  
+  @Bean
+  public MongoCollection<Post> postCollection(MongoTemplate mongoTemplate) {
+    return mongoTemplate.getCollection(POSTS_COLLECTION).withDocumentClass(Post.class);
+  }
+}
@@ -3,7 +3,7 @@ package com.sss.post.config;
 import com.sss.post.domain.enumeration.PostStatus;
 import com.sss.post.domain.enumeration.PostType;
 import com.sss.post.domain.model.Post;
-import com.sss.post.domain.model.PostId;
+import com.sss.post.domain.model.PostIdGenerator;
 import com.sss.post.domain.repository.PostRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +24,7 @@ import java.util.UUID;
 public class MongoDataInitializer implements CommandLineRunner {
   
   private final PostRepository postRepository;
+  private final PostIdGenerator postIdGenerator;
   
   @Override
   public void run(String... args) throws Exception {
@@ -41,7 +42,7 @@ public class MongoDataInitializer implements CommandLineRunner {
   private void createSamplePosts() {
     // Sample post 1: Text post
     Post textPost = Post.builder()
-        .id(new PostId(UUID.randomUUID().toString()))
+        .id(postIdGenerator.nextId())
         .authorId("user-1")
         .authorName("Nguyễn Văn A")
         .authorAvatar("https://example.com/avatar1.jpg")
@@ -63,7 +64,7 @@ public class MongoDataInitializer implements CommandLineRunner {
     
     // Sample post 2: Image post
     Post imagePost = Post.builder()
-        .id(new PostId(UUID.randomUUID().toString()))
+        .id(postIdGenerator.nextId())
         .authorId("user-2")
         .authorName("Trần Thị B")
         .authorAvatar("https://example.com/avatar2.jpg")
@@ -91,7 +92,7 @@ public class MongoDataInitializer implements CommandLineRunner {
     
     // Sample post 3: Poll post
     Post pollPost = Post.builder()
-        .id(new PostId(UUID.randomUUID().toString()))
+        .id(postIdGenerator.nextId())
         .authorId("user-3")
         .authorName("Lê Văn C")
         .authorAvatar("https://example.com/avatar3.jpg")
@@ -136,7 +137,7 @@ public class MongoDataInitializer implements CommandLineRunner {
     
     // Sample post 4: Event post
     Post eventPost = Post.builder()
-        .id(new PostId(UUID.randomUUID().toString()))
+        .id(postIdGenerator.nextId())
         .authorId("user-4")
         .authorName("Phạm Thị D")
         .authorAvatar("https://example.com/avatar4.jpg")
@@ -161,7 +162,7 @@ public class MongoDataInitializer implements CommandLineRunner {
     
     // Sample post 5: Story post
     Post storyPost = Post.builder()
-        .id(new PostId(UUID.randomUUID().toString()))
+        .id(postIdGenerator.nextId())
         .authorId("user-5")
         .authorName("Hoàng Văn E")
         .authorAvatar("https://example.com/avatar5.jpg")
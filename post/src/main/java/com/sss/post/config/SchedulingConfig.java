@@ -0,0 +1,13 @@
+package com.sss.post.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,17 @@
 package com.sss.post.config;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.sss.post.infrastructure.security.CachingJwtDecoder;
+import com.sss.post.infrastructure.security.DispatchingJwtDecoder;
+import com.sss.post.infrastructure.security.RefreshingJwkSource;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -7,6 +19,10 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
 /**
@@ -25,11 +41,54 @@ public class SecurityConfig {
         .cors(AbstractHttpConfigurer::disable)
         .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(authz -> authz
-            .requestMatchers("/graphiql/**", "/graphql/**").permitAll()
+            .requestMatchers("/graphiql/**", "/graphql/**", "/subscriptions").permitAll()
             .anyRequest().authenticated()
         )
         .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> {}));
     
     return http.build();
   }
+  
+  @Bean(destroyMethod = "close")
+  public RefreshingJwkSource keycloakJwkSource(
+      @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri:http://localhost:8080/realms/sss-realm/protocol/openid-connect/certs}") URL jwkSetUrl,
+      @Value("${app.jwt.jwks.refresh-interval:5m}") Duration refreshInterval,
+      @Value("${app.jwt.jwks.min-refresh-gap:30s}") Duration minRefreshGap,
+      @Value("${app.jwt.jwks.timeout:2s}") Duration timeout) {
+    return new RefreshingJwkSource(jwkSetUrl, refreshInterval, minRefreshGap, timeout);
+  }
+  
+  /**
+   * Keycloak tokens, plus the HS256 tokens the user service issues for
+   * direct/hybrid login when {@code app.jwt.secret} is shared with this service;
+   * a secret that is set must be at least 32 bytes. Verified tokens are cached
+   * until they expire.
+   */
+  @Bean
+  public JwtDecoder jwtDecoder(
+      RefreshingJwkSource keycloakJwkSource,
+      @Value("${app.jwt.secret:}") String secret,
+      @Value("${app.jwt.issuer:sss-user-service}") String issuer,
+      @Value("${app.jwt.decoded-cache.max-size:10000}") int decodedCacheSize) {
+    DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+    processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keycloakJwkSource));
+    // Claims are checked by the Spring validators below
+    processor.setJWTClaimsSetVerifier((claims, context) -> { });
+    NimbusJwtDecoder keycloakDecoder = new NimbusJwtDecoder(processor);
+    keycloakDecoder.setJwtValidator(JwtValidators.createDefault());
+    if (secret.isBlank()) {
+      return new CachingJwtDecoder(keycloakDecoder, decodedCacheSize);
+    }
+    
+    byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+    if (key.length < 32) {
+      throw new IllegalStateException("app.jwt.secret must be at least 32 bytes, got " + key.length);
+    }
+    NimbusJwtDecoder localDecoder = NimbusJwtDecoder
+        .withSecretKey(new SecretKeySpec(key, "HmacSHA256"))
+        .macAlgorithm(MacAlgorithm.HS256)
+        .build();
+    localDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+    return new CachingJwtDecoder(new DispatchingJwtDecoder(localDecoder, keycloakDecoder), decodedCacheSize);
+  }
 }
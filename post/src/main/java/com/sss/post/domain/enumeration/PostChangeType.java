@@ -0,0 +1,11 @@
+package com.sss.post.domain.enumeration;
+
+/**
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public enum PostChangeType {
+  CREATED,        // Bài đăng mới được thêm
+  UPDATED,        // Bài đăng bị sửa (kể cả xóa mềm)
+  DELETED         // Bài đăng bị xóa khỏi collection
+}
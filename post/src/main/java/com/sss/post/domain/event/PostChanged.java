@@ -0,0 +1,28 @@
+package com.sss.post.domain.event;
+
+import com.sss.post.domain.enumeration.PostChangeType;
+import com.sss.post.domain.model.Post;
+import com.sss.post.domain.model.PostId;
+import java.time.Instant;
+
+/**
+ * A committed change to a post, whoever made it.
+ * <p>
+ * {@code post} is the current state of the post, or {@code null} when the
+ * post no longer exists ({@link PostChangeType#DELETED}, or deleted again
+ * before the change was read).
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public record PostChanged(
+    PostChangeType type,
+    PostId postId,
+    Post post,
+    Instant occurredAt
+) {
+  
+  public String authorId() {
+    return post != null ? post.getAuthorId() : null;
+  }
+}
@@ -0,0 +1,34 @@
+package com.sss.post.domain.event;
+
+import java.util.List;
+
+/**
+ * In-process consumer of {@link PostChanged} events. Every subscriber bean
+ * receives every change, in commit order, on its own thread.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public interface PostChangedSubscriber {
+  
+  /**
+   * Handles the next changes, oldest first. Never empty and never larger
+   * than {@link #maxBatchSize()}.
+   */
+  void onPostChanged(List<PostChanged> events);
+  
+  /**
+   * Upper bound on the events delivered per call. Subscribers that write in
+   * bulk should raise it; batches only grow while the subscriber is behind.
+   */
+  default int maxBatchSize() {
+    return 1;
+  }
+  
+  /**
+   * Called when the stream could not resume and changes may have been
+   * skipped. Subscribers holding state derived from posts drop it.
+   */
+  default void onChangesMissed() {
+  }
+}
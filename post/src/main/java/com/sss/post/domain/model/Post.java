@@ -65,6 +65,8 @@ public class Post {
   private String moderationNote;     // Ghi chú kiểm duyệt
   private LocalDateTime moderatedAt; // Thời gian kiểm duyệt
   
+  private long version;              // Phiên bản, tăng mỗi lần lưu
+  
   public void incrementLikeCount() {
     this.likeCount++;
   }
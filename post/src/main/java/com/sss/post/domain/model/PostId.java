@@ -5,6 +5,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
+ * Post identifier. New ids are 24-character hex ObjectIds (time-ordered);
+ * posts created earlier keep their random UUID strings.
+ *
  * @author : Ducpm56
  * @date : 10/08/2025
  **/
@@ -0,0 +1,12 @@
+package com.sss.post.domain.model;
+
+/**
+ * Strategy for assigning ids to new posts.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public interface PostIdGenerator {
+  
+  PostId nextId();
+}
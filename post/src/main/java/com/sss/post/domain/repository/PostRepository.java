@@ -6,6 +6,7 @@ import com.sss.post.domain.enumeration.PostStatus;
 import com.sss.post.domain.enumeration.PostType;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * @author : Ducpm56
@@ -13,10 +14,43 @@ import java.util.Optional;
  **/
 public interface PostRepository {
   
+  /**
+   * Replaces an existing post, only if it still has the version the caller
+   * read, and returns the same instance with the version incremented.
+   * New posts go through {@link #insert(Post)}.
+   *
+   * @throws org.springframework.dao.OptimisticLockingFailureException if the
+   *     post was modified since it was read, or no longer exists; the
+   *     instance keeps the version it had
+   */
   Post save(Post post);
   
+  /**
+   * Inserts a new post at version 1. Fails with a duplicate key error if the
+   * id is already taken.
+   */
+  Post insert(Post post);
+  
+  /**
+   * Adds {@code delta} to the like count in one atomic update, never going
+   * below zero, and bumps the version. Concurrent likes all count; no
+   * version check is involved.
+   *
+   * @return the post after the update, or empty if it does not exist
+   */
+  Optional<Post> addLikes(PostId id, int delta);
+  
+  /**
+   * Increments the view count in one atomic update and bumps the version.
+   *
+   * @return the post after the update, or empty if it does not exist
+   */
+  Optional<Post> incrementViewCount(PostId id);
+  
   Optional<Post> findById(PostId id);
   
+  List<Post> findAllById(List<PostId> ids);
+  
   List<Post> findAll();
   
   List<Post> findByAuthorId(String authorId);
@@ -35,6 +69,32 @@ public interface PostRepository {
   
   List<Post> searchByContent(String keyword);
   
+  /**
+   * Published public posts, of one author if {@code authorId} is set, newest
+   * first, read lazily through a database cursor. The stream must be closed.
+   */
+  Stream<Post> streamPublicPosts(String authorId);
+  
+  /**
+   * Rewrites the denormalized author fields on every post of the author.
+   *
+   * @return number of posts modified
+   */
+  long updateAuthorProfile(String authorId, String authorName, String authorAvatar);
+  
+  /**
+   * Ids of the author's posts that are not deleted yet, in {@code _id} order,
+   * starting after {@code after} (exclusive, {@code null} to start from the beginning).
+   */
+  List<PostId> findUndeletedPostIdsByAuthorId(String authorId, PostId after, int limit);
+  
+  /**
+   * Marks the given posts as {@link PostStatus#DELETED} in one write.
+   *
+   * @return number of posts modified
+   */
+  long softDeleteByIds(List<PostId> ids);
+  
   void deleteById(PostId id);
   
   boolean existsById(PostId id);
@@ -0,0 +1,72 @@
+package com.sss.post.infrastructure.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sss.post.application.PostService;
+import com.sss.post.domain.model.Post;
+import com.sss.post.infrastructure.mapper.PostMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Streams large post listings as newline-delimited JSON, one post per line.
+ * <p>
+ * Posts are read through a database cursor and written as they arrive, so
+ * the first bytes go out after the first cursor batch and memory stays flat
+ * however many posts match. Only published public posts are listed, since
+ * any authenticated caller may read the stream; the response is cut off
+ * after {@code spring.mvc.async.request-timeout}.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@RestController
+@RequestMapping("/api/posts")
+@RequiredArgsConstructor
+public class PostStreamController {
+  
+  private static final String NDJSON = "application/x-ndjson";
+  private static final int FLUSH_EVERY = 100;
+  
+  private final PostService postService;
+  private final PostMapper postMapper;
+  private final ObjectMapper objectMapper;
+  
+  @GetMapping(value = "/stream", produces = NDJSON)
+  public ResponseEntity<StreamingResponseBody> streamPosts(@RequestParam(required = false) String authorId) {
+    
+    StreamingResponseBody body = output -> {
+      try (Stream<Post> posts = postService.streamPublicPosts(authorId)) {
+        writeLines(posts.iterator(), output);
+      }
+    };
+    return ResponseEntity.ok(body);
+  }
+  
+  private void writeLines(Iterator<Post> posts, OutputStream output) throws IOException {
+    // Keep the response stream open between values
+    ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    int written = 0;
+    while (posts.hasNext()) {
+      writer.writeValue(output, postMapper.toResponseDto(posts.next()));
+      output.write('\n');
+      if (++written % FLUSH_EVERY == 0) {
+        output.flush();
+      }
+    }
+    output.flush();
+    log.debug("Streamed {} posts", written);
+  }
+}
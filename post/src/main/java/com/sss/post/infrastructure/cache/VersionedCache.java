@@ -0,0 +1,101 @@
+package com.sss.post.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Local read-through cache whose entries carry the entity version.
+ * <p>
+ * An invalidation for a version the node has not cached yet leaves a
+ * tombstone, so a read that raced the write cannot put the older copy back.
+ * Invalidations older than the cached copy are ignored. Together this makes
+ * the order in which invalidation messages arrive irrelevant.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public class VersionedCache<V> {
+  
+  private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+  private final ToLongFunction<V> versionOf;
+  private final long ttlMillis;
+  private final int maxSize;
+  
+  public VersionedCache(ToLongFunction<V> versionOf, Duration ttl, int maxSize) {
+    this.versionOf = versionOf;
+    this.ttlMillis = ttl.toMillis();
+    this.maxSize = maxSize;
+  }
+  
+  /**
+   * Cached value, or {@code null} on a miss.
+   */
+  public V get(String id) {
+    Entry<V> entry = entries.get(id);
+    if (entry == null || entry.value() == null) {
+      return null;
+    }
+    if (entry.expiresAt() <= System.currentTimeMillis()) {
+      entries.remove(id, entry);
+      return null;
+    }
+    return entry.value();
+  }
+  
+  public void put(String id, V value) {
+    long now = System.currentTimeMillis();
+    evictIfFull(now);
+    long version = versionOf.applyAsLong(value);
+    entries.compute(id, (key, current) -> isNewer(current, version, now)
+        ? new Entry<>(value, version, now + ttlMillis)
+        : current);
+  }
+  
+  /**
+   * Drops the cached copy if it is older than {@code version}.
+   */
+  public void invalidate(String id, long version) {
+    long now = System.currentTimeMillis();
+    entries.compute(id, (key, current) -> isNewer(current, version, now)
+        ? new Entry<>(null, version, now + ttlMillis)
+        : current);
+  }
+  
+  /**
+   * Drops every cached value matching the predicate, whatever its version.
+   */
+  public void invalidateIf(Predicate<V> predicate) {
+    entries.values().removeIf(entry -> entry.value() != null && predicate.test(entry.value()));
+  }
+  
+  /**
+   * Drops every entry, tombstones included.
+   */
+  public void clear() {
+    entries.clear();
+  }
+  
+  public int size() {
+    return entries.size();
+  }
+  
+  private boolean isNewer(Entry<V> current, long version, long now) {
+    return current == null || current.expiresAt() <= now || current.version() < version;
+  }
+  
+  private void evictIfFull(long now) {
+    if (entries.size() < maxSize) {
+      return;
+    }
+    entries.values().removeIf(entry -> entry.expiresAt() <= now);
+    if (entries.size() >= maxSize) {
+      entries.clear();
+    }
+  }
+  
+  private record Entry<V>(V value, long version, long expiresAt) {
+  }
+}
@@ -0,0 +1,211 @@
+package com.sss.post.infrastructure.changestream;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.sss.post.domain.enumeration.PostChangeType;
+import com.sss.post.domain.event.PostChanged;
+import com.sss.post.domain.model.Post;
+import com.sss.post.domain.model.PostId;
+import com.sss.post.infrastructure.consumer.ConsumerOffsetStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Watches the {@code posts} collection and turns every committed insert,
+ * update, replace and delete into a {@link PostChanged} event, including
+ * writes from other nodes and direct database edits.
+ * <p>
+ * Changes are read in batches; once a batch has been handed to the
+ * {@link PostChangedDispatcher}, the token of its last change is saved in
+ * {@code consumer_offsets} under this node's name, so after a restart or a
+ * connection failure the stream resumes right after it, neither missing nor
+ * replaying changes. While idle, the cursor's own token is saved at most
+ * every {@code app.post-changes.idle-token-interval}. If the saved token
+ * has fallen off the oplog the stream restarts from now and subscribers are
+ * told to drop what they derived from the skipped changes.
+ * <p>
+ * Change streams need a replica set; locally the single-node {@code rs0}
+ * from docker-compose is enough.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.post-changes.enabled", havingValue = "true", matchIfMissing = true)
+public class PostChangeStreamListener {
+  
+  private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+  private static final int MAX_BATCH_SIZE = 100;
+  
+  private final MongoCollection<Post> postCollection;
+  private final PostChangedDispatcher dispatcher;
+  private final ConsumerOffsetStore offsetStore;
+  private final String consumer;
+  private final Duration retryBackoff;
+  private final long idleTokenIntervalMillis;
+  
+  // Token of the last change handed off, or of the idle cursor position
+  private BsonDocument resumeToken;
+  private BsonDocument savedToken;
+  private long savedAt;
+  private volatile boolean running;
+  private volatile MongoChangeStreamCursor<ChangeStreamDocument<Post>> cursor;
+  private Thread thread;
+  
+  public PostChangeStreamListener(
+      MongoCollection<Post> postCollection,
+      PostChangedDispatcher dispatcher,
+      ConsumerOffsetStore offsetStore,
+      // Stable per node (the container hostname), so each node resumes its own position
+      @Value("${app.post-changes.node-name:${HOSTNAME:post-service}}") String nodeName,
+      @Value("${app.post-changes.retry-backoff:5s}") Duration retryBackoff,
+      @Value("${app.post-changes.idle-token-interval:10s}") Duration idleTokenInterval) {
+    this.postCollection = postCollection;
+    this.dispatcher = dispatcher;
+    this.offsetStore = offsetStore;
+    this.consumer = "post-changes:" + nodeName;
+    this.retryBackoff = retryBackoff;
+    this.idleTokenIntervalMillis = idleTokenInterval.toMillis();
+  }
+  
+  @PostConstruct
+  public void start() {
+    running = true;
+    thread = new Thread(this::run, "post-change-stream");
+    thread.setDaemon(true);
+    thread.start();
+  }
+  
+  @PreDestroy
+  public void stop() {
+    running = false;
+    thread.interrupt();
+    MongoChangeStreamCursor<ChangeStreamDocument<Post>> current = cursor;
+    if (current != null) {
+      current.close();
+    }
+  }
+  
+  private void run() {
+    try {
+      resumeToken = offsetStore.getResumeToken(consumer);
+      savedToken = resumeToken;
+    } catch (MongoException e) {
+      log.warn("Could not load the post change stream resume token, starting from now: {}", e.getMessage());
+    }
+    
+    while (running) {
+      try {
+        watch();
+      } catch (InterruptedException e) {
+        return;
+      } catch (MongoCommandException e) {
+        if (e.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+          log.warn("Post change stream resume token is no longer in the oplog, restarting from now; "
+              + "changes written since it were missed");
+          resumeToken = null;
+          dispatcher.changesMissed();
+        } else if (!backOff(e)) {
+          return;
+        }
+      } catch (MongoException e) {
+        if (!backOff(e)) {
+          return;
+        }
+      }
+    }
+  }
+  
+  private void watch() throws InterruptedException {
+    var stream = postCollection.watch(List.of(Aggregates.match(
+            Filters.in("operationType", "insert", "update", "replace", "delete"))))
+        .fullDocument(FullDocument.UPDATE_LOOKUP)
+        .maxAwaitTime(1, TimeUnit.SECONDS);
+    if (resumeToken != null) {
+      stream = stream.resumeAfter(resumeToken);
+    }
+    
+    try (MongoChangeStreamCursor<ChangeStreamDocument<Post>> current = stream.cursor()) {
+      cursor = current;
+      log.info("Watching post changes {}", resumeToken != null ? "from the saved resume token" : "from now");
+      
+      while (running) {
+        int dispatched = 0;
+        ChangeStreamDocument<Post> change;
+        while (dispatched < MAX_BATCH_SIZE && (change = current.tryNext()) != null) {
+          dispatcher.dispatch(toEvent(change));
+          resumeToken = change.getResumeToken();
+          dispatched++;
+        }
+        
+        if (dispatched > 0) {
+          saveToken();
+        } else if (current.getResumeToken() != null) {
+          // When idle the cursor's own token moves past oplog entries that did not match
+          resumeToken = current.getResumeToken();
+          if (System.currentTimeMillis() - savedAt >= idleTokenIntervalMillis) {
+            saveToken();
+          }
+        }
+      }
+    } finally {
+      cursor = null;
+    }
+  }
+  
+  private void saveToken() {
+    if (resumeToken == null || resumeToken.equals(savedToken)) {
+      return;
+    }
+    offsetStore.saveResumeToken(consumer, resumeToken);
+    savedToken = resumeToken;
+    savedAt = System.currentTimeMillis();
+  }
+  
+  private PostChanged toEvent(ChangeStreamDocument<Post> change) {
+    PostChangeType type = switch (change.getOperationType()) {
+      case INSERT -> PostChangeType.CREATED;
+      case DELETE -> PostChangeType.DELETED;
+      default -> PostChangeType.UPDATED;
+    };
+    
+    BsonValue id = change.getDocumentKey().get("_id");
+    PostId postId = new PostId(id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue());
+    
+    Instant occurredAt = change.getClusterTime() != null
+        ? Instant.ofEpochSecond(change.getClusterTime().getTime())
+        : Instant.now();
+    
+    return new PostChanged(type, postId, change.getFullDocument(), occurredAt);
+  }
+  
+  private boolean backOff(MongoException e) {
+    if (!running) {
+      return false;
+    }
+    log.warn("Post change stream failed, retrying in {}: {}", retryBackoff, e.getMessage());
+    try {
+      Thread.sleep(retryBackoff.toMillis());
+      return true;
+    } catch (InterruptedException ie) {
+      return false;
+    }
+  }
+}
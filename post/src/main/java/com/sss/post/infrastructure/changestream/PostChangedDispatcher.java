@@ -0,0 +1,109 @@
+package com.sss.post.infrastructure.changestream;
+
+import com.sss.post.domain.event.PostChanged;
+import com.sss.post.domain.event.PostChangedSubscriber;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fans {@link PostChanged} events out to every {@link PostChangedSubscriber}.
+ * <p>
+ * Each subscriber gets a bounded queue and a worker thread. {@link #dispatch}
+ * blocks while any queue is full, which stops the change stream from reading
+ * ahead of the slowest subscriber instead of buffering without limit.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@Component
+public class PostChangedDispatcher {
+  
+  private final List<Worker> workers;
+  
+  public PostChangedDispatcher(
+      List<PostChangedSubscriber> subscribers,
+      @Value("${app.post-changes.queue-capacity:1024}") int queueCapacity) {
+    this.workers = subscribers.stream()
+        .map(subscriber -> new Worker(subscriber, queueCapacity))
+        .toList();
+  }
+  
+  @PostConstruct
+  public void start() {
+    workers.forEach(Worker::start);
+    log.info("Post change dispatcher started with {} subscribers", workers.size());
+  }
+  
+  @PreDestroy
+  public void stop() {
+    workers.forEach(Thread::interrupt);
+  }
+  
+  /**
+   * Queues the event for every subscriber. Only called from the change-stream thread.
+   */
+  public void dispatch(PostChanged event) throws InterruptedException {
+    for (Worker worker : workers) {
+      worker.queue.put(event);
+    }
+  }
+  
+  /**
+   * Tells every subscriber that changes may have been skipped.
+   */
+  public void changesMissed() {
+    for (Worker worker : workers) {
+      try {
+        worker.subscriber.onChangesMissed();
+      } catch (Exception e) {
+        log.error("Subscriber {} failed to handle missed changes: {}",
+            worker.subscriber.getClass().getSimpleName(), e.getMessage());
+      }
+    }
+  }
+  
+  private static class Worker extends Thread {
+    
+    private final PostChangedSubscriber subscriber;
+    private final BlockingQueue<PostChanged> queue;
+    private final int maxBatchSize;
+    
+    Worker(PostChangedSubscriber subscriber, int queueCapacity) {
+      super("post-changed-" + subscriber.getClass().getSimpleName());
+      setDaemon(true);
+      this.subscriber = subscriber;
+      this.queue = new ArrayBlockingQueue<>(queueCapacity);
+      this.maxBatchSize = Math.max(1, subscriber.maxBatchSize());
+    }
+    
+    @Override
+    public void run() {
+      List<PostChanged> batch = new ArrayList<>(maxBatchSize);
+      while (!isInterrupted()) {
+        try {
+          batch.add(queue.take());
+          queue.drainTo(batch, maxBatchSize - 1);
+        } catch (InterruptedException e) {
+          return;
+        }
+        
+        try {
+          subscriber.onPostChanged(List.copyOf(batch));
+        } catch (Exception e) {
+          // A failing subscriber must not stall the others or the stream
+          log.error("Subscriber {} failed on {} post changes: {}",
+              subscriber.getClass().getSimpleName(), batch.size(), e.getMessage());
+        }
+        batch.clear();
+      }
+    }
+  }
+}
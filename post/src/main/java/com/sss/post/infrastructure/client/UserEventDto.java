@@ -0,0 +1,21 @@
+package com.sss.post.infrastructure.client;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event read from the user service outbox
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public record UserEventDto(
+    long offset,
+    String type,
+    String userId,
+    String displayName,
+    String displayAvatar,
+    LocalDateTime occurredAt
+) {
+  public static final String PROFILE_CHANGED = "PROFILE_CHANGED";
+  public static final String USER_DELETED = "USER_DELETED";
+}
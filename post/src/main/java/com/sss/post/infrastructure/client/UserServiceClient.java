@@ -0,0 +1,179 @@
+package com.sss.post.infrastructure.client;
+
+import com.sss.post.infrastructure.graphql.dto.UserDto;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Client for the user service: the bulk {@code usersByIds} query and the
+ * user event outbox feed.
+ * <p>
+ * Lookups go through a short-TTL local cache (misses included), so a page of
+ * posts costs at most one cross-service call and repeated pages cost none.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@Component
+public class UserServiceClient {
+  
+  private static final String INTERNAL_TOKEN_HEADER = "X-Internal-Token";
+  
+  private static final String USERS_BY_IDS_QUERY = """
+      query UsersByIds($ids: [ID!]!) {
+        usersByIds(ids: $ids) {
+          id
+          username
+          fullName
+          userType
+          characterName
+          avatarUrl
+          profilePictureUrl
+        }
+      }
+      """;
+  
+  private final RestClient restClient;
+  private final String internalToken;
+  private final long cacheTtlMillis;
+  private final int cacheMaxSize;
+  private final Map<String, CachedUser> cache = new ConcurrentHashMap<>();
+  
+  public UserServiceClient(
+      RestClient.Builder restClientBuilder,
+      @Value("${app.user-service.url:http://localhost:8082}") String userServiceUrl,
+      @Value("${app.user-service.timeout:2s}") Duration timeout,
+      @Value("${app.user-service.internal-token}") String internalToken,
+      @Value("${app.user-service.cache-ttl:30s}") Duration cacheTtl,
+      @Value("${app.user-service.cache-max-size:10000}") int cacheMaxSize) {
+    SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+    requestFactory.setConnectTimeout(timeout);
+    requestFactory.setReadTimeout(timeout);
+    
+    this.restClient = restClientBuilder
+        .baseUrl(userServiceUrl)
+        .requestFactory(requestFactory)
+        .build();
+    if (internalToken == null || internalToken.isBlank()) {
+      throw new IllegalStateException("app.user-service.internal-token must be set");
+    }
+    this.internalToken = internalToken;
+    this.cacheTtlMillis = cacheTtl.toMillis();
+    this.cacheMaxSize = cacheMaxSize;
+  }
+  
+  /**
+   * Resolves users by id. Users that do not exist, or could not be fetched,
+   * are absent from the result.
+   */
+  public Map<String, UserDto> getUsersByIds(Collection<String> ids) {
+    long now = System.currentTimeMillis();
+    Map<String, UserDto> result = new HashMap<>();
+    List<String> missing = new ArrayList<>();
+    
+    for (String id : ids) {
+      CachedUser cached = cache.get(id);
+      if (cached != null && cached.expiresAt() > now) {
+        if (cached.user() != null) {
+          result.put(id, cached.user());
+        }
+      } else {
+        missing.add(id);
+      }
+    }
+    
+    if (missing.isEmpty()) {
+      return result;
+    }
+    
+    List<UserDto> fetched;
+    try {
+      fetched = fetchUsers(missing);
+    } catch (Exception e) {
+      log.warn("Failed to fetch {} users from user service: {}", missing.size(), e.getMessage());
+      return result;
+    }
+    
+    evictIfFull(now);
+    long expiresAt = now + cacheTtlMillis;
+    for (int i = 0; i < missing.size(); i++) {
+      UserDto user = i < fetched.size() ? fetched.get(i) : null;
+      cache.put(missing.get(i), new CachedUser(user, expiresAt));
+      if (user != null) {
+        result.put(missing.get(i), user);
+      }
+    }
+    return result;
+  }
+  
+  public void evict(String userId) {
+    cache.remove(userId);
+  }
+  
+  /**
+   * Reads the user outbox after the given offset, in offset order. The feed
+   * is internal and authenticated with the shared service token.
+   */
+  public List<UserEventDto> getUserEvents(long afterOffset, int limit) {
+    UserEventsResponse response = restClient.get()
+        .uri("/api/internal/user-events?after={after}&limit={limit}", afterOffset, limit)
+        .header(INTERNAL_TOKEN_HEADER, internalToken)
+        .retrieve()
+        .body(UserEventsResponse.class);
+    
+    if (response == null || response.data() == null) {
+      return List.of();
+    }
+    return response.data();
+  }
+  
+  private List<UserDto> fetchUsers(List<String> ids) {
+    log.debug("Fetching {} users from user service", ids.size());
+    
+    UsersByIdsResponse response = restClient.post()
+        .uri("/graphql")
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(Map.of("query", USERS_BY_IDS_QUERY, "variables", Map.of("ids", ids)))
+        .retrieve()
+        .body(UsersByIdsResponse.class);
+    
+    if (response == null || response.data() == null || response.data().usersByIds() == null) {
+      throw new IllegalStateException("Empty usersByIds response");
+    }
+    return response.data().usersByIds();
+  }
+  
+  private void evictIfFull(long now) {
+    if (cache.size() < cacheMaxSize) {
+      return;
+    }
+    cache.values().removeIf(cached -> cached.expiresAt() <= now);
+    if (cache.size() >= cacheMaxSize) {
+      cache.clear();
+    }
+  }
+  
+  private record CachedUser(UserDto user, long expiresAt) {
+  }
+  
+  private record UsersByIdsResponse(UsersByIdsData data) {
+  }
+  
+  private record UsersByIdsData(List<UserDto> usersByIds) {
+  }
+  
+  private record UserEventsResponse(List<UserEventDto> data) {
+  }
+}
@@ -0,0 +1,124 @@
+package com.sss.post.infrastructure.consumer;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Persists the last processed offset of each event consumer in the
+ * {@code consumer_offsets} collection, or for a change stream its last
+ * resume token.
+ * <p>
+ * The same document carries a lease, so only one replica consumes a feed at
+ * a time; {@link #commitOffset} is accepted from the lease owner only and
+ * never moves the offset backwards.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Component
+@RequiredArgsConstructor
+public class ConsumerOffsetStore {
+  
+  private static final String COLLECTION = "consumer_offsets";
+  
+  private final MongoTemplate mongoTemplate;
+  
+  /**
+   * Last resume token saved for the change stream {@code consumer}, or null.
+   */
+  public BsonDocument getResumeToken(String consumer) {
+    BsonDocument document = tokens().find(Filters.eq("_id", consumer)).first();
+    return document != null ? document.getDocument("resumeToken", null) : null;
+  }
+  
+  public void saveResumeToken(String consumer, BsonDocument token) {
+    tokens().updateOne(
+        Filters.eq("_id", consumer),
+        Updates.combine(
+            Updates.set("resumeToken", token),
+            Updates.set("updatedAt", new BsonDateTime(System.currentTimeMillis()))),
+        new UpdateOptions().upsert(true));
+  }
+  
+  public long getOffset(String consumer) {
+    Document document = mongoTemplate.findById(consumer, Document.class, COLLECTION);
+    if (document == null || document.get("offset") == null) {
+      return 0;
+    }
+    return ((Number) document.get("offset")).longValue();
+  }
+  
+  /**
+   * Claims or renews the consumer lease for {@code owner}. Returns false while
+   * another owner holds an unexpired lease.
+   */
+  public boolean tryAcquireLease(String consumer, String owner, Duration lease) {
+    LocalDateTime now = LocalDateTime.now();
+    Query claimable = Query.query(new Criteria().andOperator(
+        Criteria.where("_id").is(consumer),
+        new Criteria().orOperator(
+            Criteria.where("leaseOwner").is(owner),
+            Criteria.where("leaseUntil").is(null),
+            Criteria.where("leaseUntil").lt(now))));
+    Update claim = new Update()
+        .set("leaseOwner", owner)
+        .set("leaseUntil", now.plus(lease));
+    
+    if (mongoTemplate.updateFirst(claimable, claim, COLLECTION).getMatchedCount() > 0) {
+      return true;
+    }
+    if (mongoTemplate.exists(Query.query(Criteria.where("_id").is(consumer)), COLLECTION)) {
+      return false;
+    }
+    // First run of this consumer: only one replica wins the insert
+    try {
+      mongoTemplate.insert(new Document("_id", consumer)
+          .append("offset", 0L)
+          .append("leaseOwner", owner)
+          .append("leaseUntil", now.plus(lease)), COLLECTION);
+      return true;
+    } catch (DuplicateKeyException e) {
+      return false;
+    }
+  }
+  
+  /**
+   * Advances the offset if {@code owner} still holds the lease. Returns false
+   * when the lease was lost, in which case the new owner re-reads the batch.
+   */
+  public boolean commitOffset(String consumer, String owner, long offset) {
+    return mongoTemplate.updateFirst(
+        Query.query(Criteria.where("_id").is(consumer).and("leaseOwner").is(owner)),
+        new Update().max("offset", offset),
+        COLLECTION).getMatchedCount() > 0;
+  }
+  
+  // Resume tokens are raw BSON; the typed collection stores them as they are
+  private MongoCollection<BsonDocument> tokens() {
+    return mongoTemplate.getCollection(COLLECTION).withDocumentClass(BsonDocument.class);
+  }
+  
+  /**
+   * Sets the offset unconditionally, backwards included; used to replay a feed.
+   */
+  public void saveOffset(String consumer, long offset) {
+    mongoTemplate.upsert(
+        Query.query(Criteria.where("_id").is(consumer)),
+        Update.update("offset", offset),
+        COLLECTION);
+  }
+}
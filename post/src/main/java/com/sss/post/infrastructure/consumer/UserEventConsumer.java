@@ -0,0 +1,140 @@
+package com.sss.post.infrastructure.consumer;
+
+import com.sss.post.domain.repository.PostRepository;
+import com.sss.post.infrastructure.client.UserEventDto;
+import com.sss.post.infrastructure.client.UserServiceClient;
+import com.sss.post.infrastructure.job.AuthorPostCleanupJob;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies user events to posts: profile changes rewrite the denormalized
+ * author fields, deletions enqueue an {@link AuthorPostCleanupJob}.
+ * <p>
+ * Polls the user service outbox from the last committed offset. Each batch
+ * is coalesced per user, so a burst of edits becomes a single
+ * {@code updateMany} with the latest values. Offsets are committed after the
+ * batch is applied (at-least-once; the updates are idempotent), and
+ * {@link #replayFrom(long)} rewinds the consumer. A lease in the offset
+ * store keeps the other replicas idle while one of them consumes.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.user-events.enabled", havingValue = "true", matchIfMissing = true)
+public class UserEventConsumer {
+  
+  static final String CONSUMER_NAME = "post-service.user-events";
+  
+  private final UserServiceClient userServiceClient;
+  private final PostRepository postRepository;
+  private final ConsumerOffsetStore offsetStore;
+  private final AuthorPostCleanupJob authorPostCleanupJob;
+  private final int batchSize;
+  private final Duration gapTimeout;
+  private final Duration lease;
+  private final String nodeId = UUID.randomUUID().toString();
+  
+  public UserEventConsumer(
+      UserServiceClient userServiceClient,
+      PostRepository postRepository,
+      ConsumerOffsetStore offsetStore,
+      AuthorPostCleanupJob authorPostCleanupJob,
+      @Value("${app.user-events.batch-size:500}") int batchSize,
+      @Value("${app.user-events.gap-timeout:30s}") Duration gapTimeout,
+      @Value("${app.user-events.lease:30s}") Duration lease) {
+    this.userServiceClient = userServiceClient;
+    this.postRepository = postRepository;
+    this.offsetStore = offsetStore;
+    this.authorPostCleanupJob = authorPostCleanupJob;
+    this.batchSize = batchSize;
+    this.gapTimeout = gapTimeout;
+    this.lease = lease;
+  }
+  
+  @Scheduled(fixedDelayString = "${app.user-events.poll-interval:2000}")
+  public void poll() {
+    if (!offsetStore.tryAcquireLease(CONSUMER_NAME, nodeId, lease)) {
+      return;
+    }
+    long offset = offsetStore.getOffset(CONSUMER_NAME);
+    
+    List<UserEventDto> events;
+    try {
+      events = userServiceClient.getUserEvents(offset, batchSize);
+    } catch (Exception e) {
+      log.warn("Failed to read user events after offset {}: {}", offset, e.getMessage());
+      return;
+    }
+    
+    if (events.isEmpty()) {
+      return;
+    }
+    
+    // Latest event per user wins; only events up to the first open gap are taken
+    Map<String, UserEventDto> latestByUser = new LinkedHashMap<>();
+    Set<String> deletedUsers = new LinkedHashSet<>();
+    long lastOffset = offset;
+    for (UserEventDto event : events) {
+      if (event.offset() != lastOffset + 1 && !isGapExpired(event)) {
+        // An earlier offset may still be committing in the user service
+        break;
+      }
+      lastOffset = event.offset();
+      if (UserEventDto.PROFILE_CHANGED.equals(event.type())) {
+        latestByUser.put(event.userId(), event);
+      } else if (UserEventDto.USER_DELETED.equals(event.type())) {
+        deletedUsers.add(event.userId());
+      }
+    }
+    
+    if (lastOffset == offset) {
+      return;
+    }
+    
+    // No point rewriting the author fields of posts that are about to be deleted
+    latestByUser.keySet().removeAll(deletedUsers);
+    latestByUser.values().forEach(this::applyProfileChange);
+    deletedUsers.forEach(authorPostCleanupJob::enqueue);
+    if (!offsetStore.commitOffset(CONSUMER_NAME, nodeId, lastOffset)) {
+      log.warn("Lost the user event lease before committing offset {}; the batch will be re-applied", lastOffset);
+      return;
+    }
+    log.info("Applied user events up to offset {} ({} profile changes, {} deleted users)",
+        lastOffset, latestByUser.size(), deletedUsers.size());
+  }
+  
+  /**
+   * Rewinds the consumer so events after {@code offset} are applied again.
+   */
+  public void replayFrom(long offset) {
+    log.info("Replaying user events from offset {}", offset);
+    offsetStore.saveOffset(CONSUMER_NAME, offset);
+  }
+  
+  private void applyProfileChange(UserEventDto event) {
+    long modified = postRepository.updateAuthorProfile(event.userId(), event.displayName(), event.displayAvatar());
+    userServiceClient.evict(event.userId());
+    log.debug("Updated author profile on {} posts of user {}", modified, event.userId());
+  }
+  
+  private boolean isGapExpired(UserEventDto event) {
+    // Offsets are reserved before the user transaction commits; a gap that stays open
+    // longer than the timeout belongs to a rolled back transaction
+    return event.occurredAt() == null
+        || event.occurredAt().isBefore(LocalDateTime.now().minus(gapTimeout));
+  }
+}
@@ -1,24 +1,37 @@
 package com.sss.post.infrastructure.graphql;
 
 import com.netflix.graphql.dgs.DgsComponent;
+import com.netflix.graphql.dgs.DgsData;
+import com.netflix.graphql.dgs.DgsDataFetchingEnvironment;
 import com.netflix.graphql.dgs.DgsMutation;
 import com.netflix.graphql.dgs.DgsQuery;
+import com.netflix.graphql.dgs.DgsSubscription;
 import com.netflix.graphql.dgs.InputArgument;
 import com.sss.post.application.PostService;
 import com.sss.post.domain.enumeration.PostStatus;
 import com.sss.post.domain.enumeration.PostType;
+import com.sss.post.domain.exception.PostNotFoundException;
 import com.sss.post.domain.model.Post;
 import com.sss.post.domain.model.PostId;
+import com.sss.post.infrastructure.graphql.cache.CachePolicy;
+import com.sss.post.infrastructure.graphql.dataloader.AuthorDataLoader;
+import com.sss.post.infrastructure.graphql.dataloader.PostDataLoader;
 import com.sss.post.infrastructure.graphql.dto.CreatePostInput;
+import com.sss.post.infrastructure.graphql.dto.PostCountersDto;
 import com.sss.post.infrastructure.graphql.dto.PostDto;
 import com.sss.post.infrastructure.graphql.dto.PollOptionDto;
 import com.sss.post.infrastructure.graphql.dto.UpdatePostInput;
+import com.sss.post.infrastructure.graphql.dto.UserDto;
+import com.sss.post.infrastructure.graphql.subscription.PostSubscriptionHub;
 import com.sss.post.infrastructure.mapper.PostMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
+import org.reactivestreams.Publisher;
 import org.springframework.stereotype.Component;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -32,13 +45,44 @@ public class PostDataFetcher {
   
   private final PostService postService;
   private final PostMapper postMapper;
+  private final PostSubscriptionHub postSubscriptionHub;
   
   @DgsQuery
-  public PostDto post(@InputArgument String id) {
+  public CompletableFuture<PostDto> post(@InputArgument String id, DgsDataFetchingEnvironment dfe) {
     log.info("GraphQL Query: Fetching post with ID: {}", id);
     
-    Post post = postService.getPostById(id);
-    return convertToDto(post);
+    // Goes through the DataLoader so aliased post(id) fields are batched into one query
+    DataLoader<String, Post> postLoader = dfe.getDataLoader(PostDataLoader.class);
+    return postLoader.load(id).thenApply(post -> {
+      if (post == null) {
+        throw new PostNotFoundException("Post not found with ID: " + id);
+      }
+      if (!post.isPublic()) {
+        CachePolicy.restrict(dfe, null, CachePolicy.Scope.PRIVATE);
+      }
+      return convertToDto(post);
+    });
+  }
+  
+  @DgsQuery
+  public CompletableFuture<List<PostDto>> postsByIds(@InputArgument List<String> ids, DgsDataFetchingEnvironment dfe) {
+    log.info("GraphQL Query: Fetching {} posts by ID", ids.size());
+    
+    DataLoader<String, Post> postLoader = dfe.getDataLoader(PostDataLoader.class);
+    return postLoader.loadMany(ids).thenApply(posts -> posts.stream()
+        .map(post -> post != null ? convertToDto(post) : null)
+        .toList());
+  }
+  
+  @DgsData(parentType = "PostDto", field = "author")
+  public CompletableFuture<UserDto> author(DgsDataFetchingEnvironment dfe) {
+    PostDto post = dfe.getSource();
+    if (post.getAuthorId() == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    
+    DataLoader<String, UserDto> authorLoader = dfe.getDataLoader(AuthorDataLoader.class);
+    return authorLoader.load(post.getAuthorId());
   }
   
   @DgsQuery
@@ -212,8 +256,8 @@ public class PostDataFetcher {
   public PostDto createPost(@InputArgument CreatePostInput input) {
     log.info("GraphQL Mutation: Creating post - title: {}, authorId: {}", input.getTitle(), input.getAuthorId());
     
+    // PostService assigns the id through the configured PostIdGenerator
     Post post = Post.builder()
-        .id(new PostId(UUID.randomUUID().toString()))
         .authorId(input.getAuthorId())
         .authorName(input.getAuthorName())
         .authorAvatar(input.getAuthorAvatar())
@@ -311,6 +355,18 @@ public class PostDataFetcher {
     return convertToDto(post);
   }
   
+  @DgsSubscription
+  public Publisher<PostCountersDto> postCountersChanged(@InputArgument List<String> ids) {
+    log.info("GraphQL Subscription: Counters of {} posts", ids.size());
+    return postSubscriptionHub.countersOf(ids);
+  }
+  
+  @DgsSubscription
+  public Publisher<PostDto> newPublishedPosts(@InputArgument List<String> authorIds) {
+    log.info("GraphQL Subscription: New published posts of authors: {}", authorIds);
+    return postSubscriptionHub.newPublishedPostsOf(authorIds).map(this::convertToDto);
+  }
+  
   private PostDto convertToDto(Post post) {
     return PostDto.builder()
         .id(post.getId().getValue())
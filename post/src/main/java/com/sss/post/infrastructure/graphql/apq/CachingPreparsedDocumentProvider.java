@@ -0,0 +1,69 @@
+package com.sss.post.infrastructure.graphql.apq;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches parsed, validated documents in a bounded LRU keyed by the sha256
+ * of the query text, so repeat queries skip parsing and validation.
+ * Documents with validation errors are not cached.
+ * <p>
+ * Automatic Persisted Queries are served by DGS
+ * ({@code dgs.graphql.apq.enabled}), which caches the documents of
+ * persisted queries itself and hands every other request to this provider.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Component
+public class CachingPreparsedDocumentProvider implements PreparsedDocumentProvider {
+  
+  private final Map<String, PreparsedDocumentEntry> documents;
+  
+  public CachingPreparsedDocumentProvider(@Value("${app.graphql.document-cache.max-size:1000}") int maxSize) {
+    this.documents = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, PreparsedDocumentEntry> eldest) {
+        return size() > maxSize;
+      }
+    });
+  }
+  
+  @Override
+  public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+      ExecutionInput executionInput,
+      Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+    String hash = sha256(executionInput.getQuery());
+    PreparsedDocumentEntry cached = documents.get(hash);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached);
+    }
+    
+    PreparsedDocumentEntry entry = parseAndValidateFunction.apply(executionInput);
+    if (!entry.hasErrors()) {
+      documents.put(hash, entry);
+    }
+    return CompletableFuture.completedFuture(entry);
+  }
+  
+  private static String sha256(String text) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
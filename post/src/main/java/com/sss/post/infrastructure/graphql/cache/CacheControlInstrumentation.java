@@ -0,0 +1,141 @@
+package com.sss.post.infrastructure.graphql.cache;
+
+import com.sss.post.domain.enumeration.PostStatus;
+import com.sss.post.infrastructure.graphql.dto.PostDto;
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.language.OperationDefinition;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLAppliedDirectiveArgument;
+import graphql.schema.GraphQLDirectiveContainer;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Derives the {@link CachePolicy} of a response from {@code @cacheControl}
+ * hints in the schema.
+ * <p>
+ * A field takes the hint on its definition, else the hint on its return
+ * type. Root fields without a hint make the response uncacheable; nested
+ * fields without one inherit from their parent. Responses with errors, and
+ * anything but queries, are never cacheable; a post that is not published
+ * and public makes the response PRIVATE. The policy is exposed to {@link GraphQLResponseCacheFilter}
+ * as a request attribute.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Component
+public class CacheControlInstrumentation extends SimplePerformantInstrumentation {
+  
+  private static final String DIRECTIVE = "cacheControl";
+  private static final String POST_TYPE = "PostDto";
+  private static final String POST_CONNECTION_TYPE = "PostConnection";
+  
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecution(
+      InstrumentationExecutionParameters parameters, InstrumentationState state) {
+    CachePolicy policy = new CachePolicy();
+    parameters.getGraphQLContext().put(CachePolicy.CONTEXT_KEY, policy);
+    if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+      attributes.getRequest().setAttribute(CachePolicy.CONTEXT_KEY, policy);
+    }
+    return SimpleInstrumentationContext.noOp();
+  }
+  
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+      InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+    // A persisted query arrives as a hash, so the operation type is only known here
+    CachePolicy policy = parameters.getExecutionContext().getGraphQLContext().get(CachePolicy.CONTEXT_KEY);
+    if (policy != null
+        && parameters.getExecutionContext().getOperationDefinition().getOperation() != OperationDefinition.Operation.QUERY) {
+      policy.fail();
+    }
+    return SimpleInstrumentationContext.noOp();
+  }
+  
+  @Override
+  public DataFetcher<?> instrumentDataFetcher(
+      DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+    CachePolicy policy = parameters.getExecutionContext().getGraphQLContext().get(CachePolicy.CONTEXT_KEY);
+    if (policy == null) {
+      return dataFetcher;
+    }
+    
+    DataFetchingEnvironment environment = parameters.getEnvironment();
+    GraphQLFieldDefinition field = environment.getFieldDefinition();
+    GraphQLType returnType = GraphQLTypeUtil.unwrapAll(field.getType());
+    applyHint(policy, field, returnType, environment.getExecutionStepInfo().getPath().getLevel() == 1);
+    
+    if (returnType instanceof GraphQLNamedType namedType && POST_CONNECTION_TYPE.equals(namedType.getName())) {
+      policy.tagList();
+    }
+    if (returnType instanceof GraphQLNamedType namedType && POST_TYPE.equals(namedType.getName())) {
+      if (GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(field.getType()))) {
+        policy.tagList();
+      }
+      return env -> tagPosts(policy, dataFetcher.get(env));
+    }
+    return dataFetcher;
+  }
+  
+  @Override
+  public CompletableFuture<ExecutionResult> instrumentExecutionResult(
+      ExecutionResult executionResult, InstrumentationExecutionParameters parameters, InstrumentationState state) {
+    CachePolicy policy = parameters.getGraphQLContext().get(CachePolicy.CONTEXT_KEY);
+    if (policy != null && !executionResult.getErrors().isEmpty()) {
+      policy.fail();
+    }
+    return CompletableFuture.completedFuture(executionResult);
+  }
+  
+  private void applyHint(CachePolicy policy, GraphQLFieldDefinition field, GraphQLType returnType, boolean root) {
+    GraphQLAppliedDirective hint = field.getAppliedDirective(DIRECTIVE);
+    if (hint == null && returnType instanceof GraphQLDirectiveContainer container) {
+      hint = container.getAppliedDirective(DIRECTIVE);
+    }
+    
+    if (hint != null) {
+      GraphQLAppliedDirectiveArgument maxAge = hint.getArgument("maxAge");
+      GraphQLAppliedDirectiveArgument scope = hint.getArgument("scope");
+      policy.restrict(
+          maxAge != null && maxAge.getValue() instanceof Number number ? number.intValue() : null,
+          scope != null && "PRIVATE".equals(String.valueOf(scope.getValue())) ? CachePolicy.Scope.PRIVATE : null);
+    } else if (root) {
+      policy.restrict(0, null);
+    }
+  }
+  
+  private Object tagPosts(CachePolicy policy, Object value) {
+    if (value instanceof CompletionStage<?> stage) {
+      return stage.thenApply(resolved -> tagPosts(policy, resolved));
+    }
+    if (value instanceof PostDto post && post.getId() != null) {
+      policy.tagPost(post.getId());
+      if (post.getStatus() != PostStatus.PUBLISHED || !post.isPublic()) {
+        // Drafts, archived and non-public posts are never shared between callers
+        policy.restrict(null, CachePolicy.Scope.PRIVATE);
+      }
+    } else if (value instanceof Collection<?> values) {
+      values.forEach(element -> tagPosts(policy, element));
+    }
+    return value;
+  }
+}
@@ -0,0 +1,83 @@
+package com.sss.post.infrastructure.graphql.cache;
+
+import graphql.schema.DataFetchingEnvironment;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache policy of one GraphQL response, narrowed by every field resolved:
+ * the smallest max-age wins and one PRIVATE field makes the whole response
+ * PRIVATE. Also collects the ids of the posts in the response, which tag
+ * the cached entry for invalidation, and whether it lists posts, which
+ * makes it depend on every post change.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public class CachePolicy {
+  
+  public static final String CONTEXT_KEY = CachePolicy.class.getName();
+  
+  public enum Scope {
+    PUBLIC,
+    PRIVATE
+  }
+  
+  private final Set<String> postIds = ConcurrentHashMap.newKeySet();
+  private Integer maxAge;
+  private Scope scope = Scope.PUBLIC;
+  private boolean failed;
+  private volatile boolean listsPosts;
+  
+  /**
+   * Lets a data fetcher narrow the policy from what it resolved, e.g. a
+   * post that is not public.
+   */
+  public static void restrict(DataFetchingEnvironment environment, Integer maxAge, Scope scope) {
+    CachePolicy policy = environment.getGraphQlContext().get(CONTEXT_KEY);
+    if (policy != null) {
+      policy.restrict(maxAge, scope);
+    }
+  }
+  
+  public synchronized void restrict(Integer maxAge, Scope scope) {
+    if (maxAge != null) {
+      this.maxAge = this.maxAge == null ? maxAge : Math.min(this.maxAge, maxAge);
+    }
+    if (scope == Scope.PRIVATE) {
+      this.scope = Scope.PRIVATE;
+    }
+  }
+  
+  public void tagPost(String postId) {
+    postIds.add(postId);
+  }
+  
+  public void tagList() {
+    listsPosts = true;
+  }
+  
+  public boolean listsPosts() {
+    return listsPosts;
+  }
+  
+  public synchronized void fail() {
+    failed = true;
+  }
+  
+  public synchronized boolean isCacheable() {
+    return !failed && maxAge != null && maxAge > 0;
+  }
+  
+  public synchronized int maxAge() {
+    return maxAge != null ? maxAge : 0;
+  }
+  
+  public synchronized Scope scope() {
+    return scope;
+  }
+  
+  public Set<String> postIds() {
+    return Set.copyOf(postIds);
+  }
+}
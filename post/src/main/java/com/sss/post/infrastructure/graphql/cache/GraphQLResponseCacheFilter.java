@@ -0,0 +1,262 @@
+package com.sss.post.infrastructure.graphql.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Serves repeated GraphQL queries from the {@link ResponseCache} and sets
+ * {@code Cache-Control} from the response's {@link CachePolicy}, so a CDN
+ * can absorb anonymous traffic as well. Handles {@code POST /graphql} and
+ * {@code GET /graphql}, where the query (or the persisted query hash in
+ * {@code extensions}) comes as request parameters; GET is what lets a CDN
+ * cache persisted queries.
+ * <p>
+ * The cache key is the sha256 of the query text (the Automatic Persisted
+ * Query hash, so a hash-only request and the full text share one entry),
+ * the canonical variables, the operation name and the scope; PRIVATE
+ * entries are keyed by the caller as well. Mutations and subscriptions are
+ * never cached.
+ * Runs after the security filter chain, so the caller is known.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@Component
+public class GraphQLResponseCacheFilter extends OncePerRequestFilter {
+  
+  private static final Pattern NOT_A_QUERY = Pattern.compile("\\b(mutation|subscription)\\b");
+  
+  private final ResponseCache responseCache;
+  private final ObjectMapper objectMapper;
+  private final boolean enabled;
+  
+  public GraphQLResponseCacheFilter(
+      ResponseCache responseCache,
+      ObjectMapper objectMapper,
+      @Value("${app.graphql.response-cache.enabled:true}") boolean enabled) {
+    this.responseCache = responseCache;
+    this.objectMapper = objectMapper;
+    this.enabled = enabled;
+  }
+  
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !enabled
+        || !("POST".equals(request.getMethod()) || "GET".equals(request.getMethod()))
+        || !"/graphql".equals(request.getServletPath());
+  }
+  
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    HttpServletRequest forwarded = request;
+    JsonNode graphQLRequest;
+    if ("GET".equals(request.getMethod())) {
+      graphQLRequest = fromParameters(request);
+    } else {
+      byte[] body = request.getInputStream().readAllBytes();
+      forwarded = new CachedBodyRequest(request, body);
+      graphQLRequest = readTree(body);
+    }
+    
+    String baseKey = graphQLRequest != null ? baseKey(graphQLRequest) : null;
+    if (baseKey == null) {
+      chain.doFilter(forwarded, response);
+      return;
+    }
+    String publicKey = baseKey + "|public";
+    String privateKey = privateKey(baseKey);
+    
+    ResponseCache.Entry hit = responseCache.get(publicKey);
+    if (hit == null && privateKey != null) {
+      hit = responseCache.get(privateKey);
+    }
+    if (hit != null) {
+      response.setContentType(hit.contentType());
+      response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl(hit.scope(), hit.remainingSeconds()));
+      response.setContentLength(hit.body().length);
+      response.getOutputStream().write(hit.body());
+      return;
+    }
+    
+    // Read before executing: a post invalidated meanwhile keeps the response out of the cache
+    long generation = responseCache.generation();
+    ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+    chain.doFilter(forwarded, wrapper);
+    
+    CachePolicy policy = (CachePolicy) request.getAttribute(CachePolicy.CONTEXT_KEY);
+    if (policy != null && policy.isCacheable() && wrapper.getStatus() == HttpServletResponse.SC_OK) {
+      String key = policy.scope() == CachePolicy.Scope.PRIVATE ? privateKey : publicKey;
+      if (key != null) {
+        responseCache.put(key, wrapper.getContentAsByteArray(), wrapper.getContentType(), policy, generation);
+      }
+      wrapper.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl(policy.scope(), policy.maxAge()));
+    } else {
+      wrapper.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+    }
+    wrapper.copyBodyToResponse();
+  }
+  
+  private JsonNode readTree(byte[] body) {
+    try {
+      return objectMapper.readTree(body);
+    } catch (IOException e) {
+      // Let DGS report the malformed request
+      return null;
+    }
+  }
+  
+  /**
+   * The GET form of a GraphQL request: {@code query} and {@code operationName}
+   * as text, {@code variables} and {@code extensions} as JSON.
+   */
+  private JsonNode fromParameters(HttpServletRequest request) {
+    try {
+      ObjectNode node = objectMapper.createObjectNode();
+      node.put("query", request.getParameter("query"));
+      node.put("operationName", request.getParameter("operationName"));
+      String variables = request.getParameter("variables");
+      if (variables != null) {
+        node.set("variables", objectMapper.readTree(variables));
+      }
+      String extensions = request.getParameter("extensions");
+      if (extensions != null) {
+        node.set("extensions", objectMapper.readTree(extensions));
+      }
+      return node;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+  
+  private String baseKey(JsonNode request) {
+    try {
+      String query = request.path("query").asText("");
+      String queryHash;
+      if (!query.isBlank()) {
+        if (NOT_A_QUERY.matcher(query).find()) {
+          return null;
+        }
+        queryHash = sha256(query);
+      } else {
+        // Hash-only persisted query; the operation type is checked during execution
+        queryHash = request.path("extensions").path("persistedQuery").path("sha256Hash").asText("").toLowerCase();
+        if (queryHash.isEmpty()) {
+          return null;
+        }
+      }
+      
+      JsonNode variables = request.path("variables");
+      String canonicalVariables = variables.isObject()
+          ? objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+              .writeValueAsString(objectMapper.treeToValue(variables, Object.class))
+          : "{}";
+      return queryHash + "|" + sha256(canonicalVariables) + "|" + request.path("operationName").asText("");
+    } catch (IOException e) {
+      return null;
+    }
+  }
+  
+  private String privateKey(String baseKey) {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || !authentication.isAuthenticated()
+        || "anonymousUser".equals(authentication.getName())) {
+      return null;
+    }
+    return baseKey + "|private|" + authentication.getName();
+  }
+  
+  private String cacheControl(CachePolicy.Scope scope, int maxAge) {
+    return (scope == CachePolicy.Scope.PRIVATE ? "private" : "public") + ", max-age=" + maxAge;
+  }
+  
+  private static String sha256(String text) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+  
+  private static class CachedBodyRequest extends HttpServletRequestWrapper {
+    
+    private final byte[] body;
+    
+    CachedBodyRequest(HttpServletRequest request, byte[] body) {
+      super(request);
+      this.body = body;
+    }
+    
+    @Override
+    public ServletInputStream getInputStream() {
+      ByteArrayInputStream input = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+        @Override
+        public boolean isFinished() {
+          return input.available() == 0;
+        }
+        
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+        
+        @Override
+        public void setReadListener(ReadListener readListener) {
+          // The whole body is already in memory, so it is all available at once
+          try {
+            if (!isFinished()) {
+              readListener.onDataAvailable();
+            }
+            readListener.onAllDataRead();
+          } catch (IOException e) {
+            readListener.onError(e);
+          }
+        }
+        
+        @Override
+        public int read() {
+          return input.read();
+        }
+      };
+    }
+    
+    @Override
+    public BufferedReader getReader() {
+      return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+    }
+    
+    @Override
+    public int getContentLength() {
+      return body.length;
+    }
+  }
+}
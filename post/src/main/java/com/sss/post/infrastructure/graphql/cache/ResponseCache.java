@@ -0,0 +1,180 @@
+package com.sss.post.infrastructure.graphql.cache;
+
+import com.sss.post.domain.event.PostChanged;
+import com.sss.post.domain.event.PostChangedSubscriber;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Whole-response cache for GraphQL queries, bounded LRU.
+ * <p>
+ * Every entry is tagged with the ids of the posts it contains; a change to
+ * any of them, seen on the post change stream, drops the entry on every
+ * node. Lists can still miss a post published after they were cached,
+ * for at most their max-age.
+ * <p>
+ * Every invalidation stamps the invalidated tags (the post id, and the
+ * {@link #FEED} tag every list depends on) with a new generation. A response
+ * is only stored if none of the tags it depends on was stamped while it was
+ * being computed, so a stale response cannot be put back after its
+ * invalidation, while changes to unrelated posts do not keep it out.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Component
+public class ResponseCache implements PostChangedSubscriber {
+  
+  /**
+   * Tag of list responses and of responses without any post (e.g. a post
+   * not found), which any post change may affect.
+   */
+  static final String FEED = "feed";
+  
+  private final Map<String, Entry> entries;
+  private final Map<String, Set<String>> keysByPost = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+  /** Generation of the last invalidation of each tag, oldest first; guarded by {@code entries}. */
+  private final Map<String, Long> invalidatedAt;
+  /** Generation below which invalidations were forgotten; guarded by {@code entries}. */
+  private long forgottenBefore;
+  
+  public ResponseCache(@Value("${app.graphql.response-cache.max-entries:1000}") int maxEntries) {
+    this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        if (size() > maxEntries) {
+          untag(eldest.getKey(), eldest.getValue());
+          return true;
+        }
+        return false;
+      }
+    });
+    this.invalidatedAt = new LinkedHashMap<>(16, 0.75f, false) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+        if (size() > maxEntries) {
+          // Treat every tag as invalidated as late as the one forgotten
+          forgottenBefore = Math.max(forgottenBefore, eldest.getValue());
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+  
+  /**
+   * Cached response, or {@code null} on a miss.
+   */
+  public Entry get(String key) {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (entry.expiresAt() <= System.currentTimeMillis()) {
+      remove(key);
+      return null;
+    }
+    return entry;
+  }
+  
+  /**
+   * Invalidation generation; read it before computing a response and pass
+   * it to {@link #put}.
+   */
+  public long generation() {
+    return generation.get();
+  }
+  
+  /**
+   * Stores the response unless one of the tags it depends on was invalidated
+   * since {@code generation}.
+   */
+  public void put(String key, byte[] body, String contentType, CachePolicy policy, long generation) {
+    Entry entry = new Entry(body, contentType, policy.scope(), policy.postIds(),
+        System.currentTimeMillis() + policy.maxAge() * 1000L);
+    boolean dependsOnFeed = policy.listsPosts() || entry.postIds().isEmpty();
+    synchronized (entries) {
+      if ((dependsOnFeed && isInvalidatedSince(FEED, generation))
+          || entry.postIds().stream().anyMatch(postId -> isInvalidatedSince(postId, generation))) {
+        return;
+      }
+      for (String postId : entry.postIds()) {
+        keysByPost.computeIfAbsent(postId, id -> ConcurrentHashMap.newKeySet()).add(key);
+      }
+      entries.put(key, entry);
+    }
+  }
+  
+  public void invalidatePost(String postId) {
+    synchronized (entries) {
+      long stamp = generation.incrementAndGet();
+      stamp(postId, stamp);
+      stamp(FEED, stamp);
+      Set<String> keys = keysByPost.remove(postId);
+      if (keys != null) {
+        keys.forEach(this::remove);
+      }
+    }
+  }
+  
+  @Override
+  public void onPostChanged(List<PostChanged> events) {
+    events.forEach(event -> invalidatePost(event.postId().getValue()));
+  }
+  
+  @Override
+  public int maxBatchSize() {
+    return 256;
+  }
+  
+  @Override
+  public void onChangesMissed() {
+    synchronized (entries) {
+      forgottenBefore = generation.incrementAndGet();
+      invalidatedAt.clear();
+      entries.clear();
+      keysByPost.clear();
+    }
+  }
+  
+  private void stamp(String tag, long stamp) {
+    // Re-insert so the map stays ordered by invalidation
+    invalidatedAt.remove(tag);
+    invalidatedAt.put(tag, stamp);
+  }
+  
+  private boolean isInvalidatedSince(String tag, long generation) {
+    return Math.max(forgottenBefore, invalidatedAt.getOrDefault(tag, 0L)) > generation;
+  }
+  
+  private void remove(String key) {
+    Entry entry = entries.remove(key);
+    if (entry != null) {
+      untag(key, entry);
+    }
+  }
+  
+  private void untag(String key, Entry entry) {
+    for (String postId : entry.postIds()) {
+      keysByPost.computeIfPresent(postId, (id, keys) -> {
+        keys.remove(key);
+        return keys.isEmpty() ? null : keys;
+      });
+    }
+  }
+  
+  public record Entry(byte[] body, String contentType, CachePolicy.Scope scope, Set<String> postIds, long expiresAt) {
+    
+    public int remainingSeconds() {
+      return (int) Math.max(0, (expiresAt - System.currentTimeMillis()) / 1000);
+    }
+  }
+}
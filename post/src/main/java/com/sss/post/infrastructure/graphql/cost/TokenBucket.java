@@ -0,0 +1,43 @@
+package com.sss.post.infrastructure.graphql.cost;
+
+/**
+ * Cost budget of one client: holds up to {@code capacity} tokens and refills
+ * continuously at {@code refillPerSecond}.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+class TokenBucket {
+  
+  private final long capacity;
+  private final double refillPerMilli;
+  private double tokens;
+  private long refilledAt;
+  
+  TokenBucket(long capacity, long refillPerSecond) {
+    this.capacity = capacity;
+    this.refillPerMilli = refillPerSecond / 1000.0;
+    this.tokens = capacity;
+    this.refilledAt = System.currentTimeMillis();
+  }
+  
+  /**
+   * Takes {@code cost} tokens if available.
+   *
+   * @return 0 if the tokens were taken, otherwise the milliseconds until they will be
+   */
+  synchronized long tryConsume(long cost) {
+    refill();
+    if (tokens >= cost) {
+      tokens -= cost;
+      return 0;
+    }
+    return (long) Math.ceil((cost - tokens) / refillPerMilli);
+  }
+  
+  private void refill() {
+    long now = System.currentTimeMillis();
+    tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerMilli);
+    refilledAt = now;
+  }
+}
@@ -0,0 +1,34 @@
+package com.sss.post.infrastructure.graphql.dataloader;
+
+import com.netflix.graphql.dgs.DgsDataLoader;
+import com.sss.post.infrastructure.client.UserServiceClient;
+import com.sss.post.infrastructure.graphql.dto.UserDto;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dataloader.MappedBatchLoader;
+
+/**
+ * Resolves post authors from the user service, one bulk call for all the
+ * author ids requested in an execution.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@DgsDataLoader(name = "authors")
+@RequiredArgsConstructor
+public class AuthorDataLoader implements MappedBatchLoader<String, UserDto> {
+  
+  private final UserServiceClient userServiceClient;
+  
+  @Override
+  public CompletionStage<Map<String, UserDto>> load(Set<String> authorIds) {
+    log.debug("Batch loading {} authors", authorIds.size());
+    
+    return CompletableFuture.completedFuture(userServiceClient.getUsersByIds(authorIds));
+  }
+}
@@ -0,0 +1,40 @@
+package com.sss.post.infrastructure.graphql.dataloader;
+
+import com.netflix.graphql.dgs.DgsDataLoader;
+import com.sss.post.application.PostService;
+import com.sss.post.domain.model.Post;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.dataloader.MappedBatchLoader;
+
+/**
+ * Collects every post-by-id load of one GraphQL execution into a single
+ * {@code $in} query. Ids that are not found are simply absent from the map,
+ * which DataLoader resolves to {@code null}.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@DgsDataLoader(name = "posts")
+@RequiredArgsConstructor
+public class PostDataLoader implements MappedBatchLoader<String, Post> {
+  
+  private final PostService postService;
+  
+  @Override
+  public CompletionStage<Map<String, Post>> load(Set<String> ids) {
+    log.debug("Batch loading {} posts", ids.size());
+    
+    List<Post> posts = postService.getPostsByIds(List.copyOf(ids));
+    return CompletableFuture.completedFuture(posts.stream()
+        .collect(Collectors.toMap(post -> post.getId().getValue(), Function.identity(), (first, second) -> first)));
+  }
+}
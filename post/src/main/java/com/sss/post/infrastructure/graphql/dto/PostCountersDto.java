@@ -0,0 +1,23 @@
+package com.sss.post.infrastructure.graphql.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostCountersDto {
+  
+  private String id;
+  private int likeCount;
+  private int commentCount;
+  private int shareCount;
+  private int viewCount;
+}
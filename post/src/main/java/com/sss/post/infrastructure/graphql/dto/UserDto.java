@@ -0,0 +1,27 @@
+package com.sss.post.infrastructure.graphql.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Author profile as served by the user service
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserDto {
+  
+  private String id;
+  private String username;
+  private String fullName;
+  private String userType;
+  private String characterName;
+  private String avatarUrl;
+  private String profilePictureUrl;
+}
@@ -0,0 +1,166 @@
+package com.sss.post.infrastructure.graphql.subscription;
+
+import com.sss.post.domain.enumeration.PostStatus;
+import com.sss.post.domain.event.PostChanged;
+import com.sss.post.domain.event.PostChangedSubscriber;
+import com.sss.post.domain.model.Post;
+import com.sss.post.infrastructure.graphql.dto.PostCountersDto;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Feeds the GraphQL subscriptions from the post change stream.
+ * <p>
+ * There is one topic per post id (counters) and per author id (new posts),
+ * shared by every subscriber of that id, so a change is processed once
+ * however many clients watch it. Counter changes are coalesced: the latest
+ * counters of each post are held and flushed every
+ * {@code app.subscriptions.coalesce-window} ms, so a hot post pushes at most
+ * once per window. Topics drop updates for subscribers that cannot keep up
+ * rather than buffering them. Only published public posts are pushed, since
+ * anyone may subscribe.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@Component
+public class PostSubscriptionHub implements PostChangedSubscriber {
+  
+  private static final String ALL_AUTHORS = "*";
+  
+  private final Map<String, Topic<PostCountersDto>> counterTopics = new ConcurrentHashMap<>();
+  private final Map<String, Topic<Post>> authorTopics = new ConcurrentHashMap<>();
+  private final Map<String, PostCountersDto> pendingCounters = new ConcurrentHashMap<>();
+  private final Map<String, LocalDateTime> announced = new ConcurrentHashMap<>();
+  private final Duration newPostWindow;
+  
+  public PostSubscriptionHub(@Value("${app.subscriptions.new-post-window:1m}") Duration newPostWindow) {
+    this.newPostWindow = newPostWindow;
+  }
+  
+  public Flux<PostCountersDto> countersOf(Collection<String> postIds) {
+    return Flux.merge(postIds.stream()
+        .distinct()
+        .map(id -> subscribe(counterTopics, id))
+        .toList());
+  }
+  
+  public Flux<Post> newPublishedPostsOf(Collection<String> authorIds) {
+    if (authorIds == null || authorIds.isEmpty()) {
+      return subscribe(authorTopics, ALL_AUTHORS);
+    }
+    return Flux.merge(authorIds.stream()
+        .distinct()
+        .map(id -> subscribe(authorTopics, id))
+        .toList());
+  }
+  
+  @Override
+  public void onPostChanged(List<PostChanged> events) {
+    for (PostChanged event : events) {
+      Post post = event.post();
+      if (post == null) {
+        continue;
+      }
+      
+      String postId = event.postId().getValue();
+      if (counterTopics.containsKey(postId) && isVisibleToAnyone(post)) {
+        // Latest counters win until the next flush
+        pendingCounters.put(postId, toCounters(post));
+      }
+      if (isNewlyPublished(post)) {
+        publishNewPost(post);
+      }
+    }
+  }
+  
+  @Override
+  public int maxBatchSize() {
+    return 256;
+  }
+  
+  @Scheduled(fixedDelayString = "${app.subscriptions.coalesce-window:500}")
+  public void flushCounters() {
+    for (String postId : pendingCounters.keySet()) {
+      PostCountersDto counters = pendingCounters.remove(postId);
+      Topic<PostCountersDto> topic = counterTopics.get(postId);
+      if (counters != null && topic != null && !counters.equals(topic.last)) {
+        topic.last = counters;
+        topic.sink.tryEmitNext(counters);
+      }
+    }
+    
+    // Forget announcements once a republish could no longer look new
+    LocalDateTime cutoff = LocalDateTime.now().minus(newPostWindow);
+    announced.values().removeIf(publishedAt -> publishedAt.isBefore(cutoff));
+  }
+  
+  private void publishNewPost(Post post) {
+    if (announced.putIfAbsent(post.getId().getValue(), post.getPublishedAt()) != null) {
+      return;
+    }
+    emit(authorTopics.get(post.getAuthorId()), post);
+    emit(authorTopics.get(ALL_AUTHORS), post);
+  }
+  
+  // Subscriptions are open to anonymous clients, so only what the public feed shows goes out
+  private boolean isVisibleToAnyone(Post post) {
+    return post.getStatus() == PostStatus.PUBLISHED && post.isPublic();
+  }
+  
+  private boolean isNewlyPublished(Post post) {
+    // The change stream carries the post after the change only, so a fresh publishedAt marks the transition
+    return isVisibleToAnyone(post)
+        && post.getPublishedAt() != null
+        && post.getPublishedAt().isAfter(LocalDateTime.now().minus(newPostWindow));
+  }
+  
+  private <T> Flux<T> subscribe(Map<String, Topic<T>> topics, String key) {
+    return Flux.defer(() -> {
+      // Lookup and reference count in one compute, so the last subscriber leaving
+      // cannot remove the topic between them
+      Topic<T> topic = topics.compute(key, (k, current) -> {
+        Topic<T> subscribed = current != null ? current : new Topic<>();
+        subscribed.subscribers++;
+        return subscribed;
+      });
+      return topic.sink.asFlux()
+          .doFinally(signal -> topics.computeIfPresent(key,
+              (k, current) -> current == topic && --current.subscribers == 0 ? null : current));
+    });
+  }
+  
+  private <T> void emit(Topic<T> topic, T value) {
+    if (topic != null) {
+      topic.sink.tryEmitNext(value);
+    }
+  }
+  
+  private PostCountersDto toCounters(Post post) {
+    return PostCountersDto.builder()
+        .id(post.getId().getValue())
+        .likeCount(post.getLikeCount())
+        .commentCount(post.getCommentCount())
+        .shareCount(post.getShareCount())
+        .viewCount(post.getViewCount())
+        .build();
+  }
+  
+  private static class Topic<T> {
+    private final Sinks.Many<T> sink = Sinks.many().multicast().directBestEffort();
+    private volatile T last;
+    // Only read and written inside a compute on the topic map
+    private int subscribers;
+  }
+}
@@ -0,0 +1,27 @@
+package com.sss.post.infrastructure.id;
+
+import com.sss.post.domain.model.PostId;
+import com.sss.post.domain.model.PostIdGenerator;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default generator: time-ordered ObjectIds.
+ * <p>
+ * New ids land at the right edge of the {@code _id} index, are stored as a
+ * 12-byte native ObjectId instead of a 36-character string, and sort in
+ * creation order so "newest first" queries can sort on {@code _id}.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Component
+@ConditionalOnProperty(name = "app.post.id-strategy", havingValue = "objectid", matchIfMissing = true)
+public class ObjectIdPostIdGenerator implements PostIdGenerator {
+  
+  @Override
+  public PostId nextId() {
+    return new PostId(new ObjectId().toHexString());
+  }
+}
@@ -0,0 +1,24 @@
+package com.sss.post.infrastructure.id;
+
+import com.sss.post.domain.model.PostId;
+import com.sss.post.domain.model.PostIdGenerator;
+import java.util.UUID;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Legacy generator: random UUID strings, as posts were created before
+ * time-ordered ids. Enable with {@code app.post.id-strategy=uuid}.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Component
+@ConditionalOnProperty(name = "app.post.id-strategy", havingValue = "uuid")
+public class UuidPostIdGenerator implements PostIdGenerator {
+  
+  @Override
+  public PostId nextId() {
+    return new PostId(UUID.randomUUID().toString());
+  }
+}
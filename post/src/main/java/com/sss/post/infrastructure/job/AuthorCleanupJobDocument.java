@@ -0,0 +1,55 @@
+package com.sss.post.infrastructure.job;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Progress of soft-deleting the posts of a deleted user. One document per
+ * author; {@code cursor} is the last post id processed, so a job picks up
+ * where it stopped after a restart.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "author_cleanup_jobs")
+public class AuthorCleanupJobDocument {
+  
+  public static final String PENDING = "PENDING";
+  public static final String RUNNING = "RUNNING";
+  public static final String DONE = "DONE";
+  
+  @Id
+  private String authorId;
+  
+  private String status;
+  
+  private String cursor;
+  
+  @Field("processed_count")
+  private long processedCount;
+  
+  @Field("lease_owner")
+  private String leaseOwner;
+  
+  @Field("lease_until")
+  private LocalDateTime leaseUntil;
+  
+  @Field("created_at")
+  private LocalDateTime createdAt;
+  
+  @Field("updated_at")
+  private LocalDateTime updatedAt;
+  
+  @Field("finished_at")
+  private LocalDateTime finishedAt;
+}
@@ -0,0 +1,201 @@
+package com.sss.post.infrastructure.job;
+
+import com.sss.post.domain.model.PostId;
+import com.sss.post.domain.repository.PostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background job that soft-deletes the posts of deleted users.
+ * <p>
+ * Jobs are enqueued from USER_DELETED events and processed in batches of
+ * {@code app.author-cleanup.batch-size}: one id-only page with a cursor on
+ * {@code _id}, one {@code updateMany} over those ids, one progress update on
+ * the job. Batches are spaced by {@code app.author-cleanup.batch-pause} so
+ * the cleanup never competes with foreground traffic, and a lease keeps two
+ * nodes from working on the same author.
+ * <p>
+ * The job runs on its own thread rather than the shared {@code @Scheduled}
+ * one: a run lasts up to {@code app.author-cleanup.run-budget} and would
+ * otherwise hold up the user event poll and the subscription flush.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@Component
+public class AuthorPostCleanupJob {
+  
+  private final MongoTemplate mongoTemplate;
+  private final PostRepository postRepository;
+  private final int batchSize;
+  private final Duration batchPause;
+  private final Duration runBudget;
+  private final Duration lease;
+  private final Duration pollInterval;
+  private final String nodeId = UUID.randomUUID().toString();
+  private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "author-post-cleanup");
+    thread.setDaemon(true);
+    return thread;
+  });
+  
+  public AuthorPostCleanupJob(
+      MongoTemplate mongoTemplate,
+      PostRepository postRepository,
+      @Value("${app.author-cleanup.batch-size:500}") int batchSize,
+      @Value("${app.author-cleanup.batch-pause:200ms}") Duration batchPause,
+      @Value("${app.author-cleanup.run-budget:10s}") Duration runBudget,
+      @Value("${app.author-cleanup.poll-interval:5000}") long pollIntervalMillis) {
+    this.mongoTemplate = mongoTemplate;
+    this.postRepository = postRepository;
+    this.batchSize = batchSize;
+    this.batchPause = batchPause;
+    this.runBudget = runBudget;
+    this.lease = runBudget.multipliedBy(3);
+    this.pollInterval = Duration.ofMillis(pollIntervalMillis);
+  }
+  
+  @PostConstruct
+  public void start() {
+    worker.scheduleWithFixedDelay(this::runSafely, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+  
+  @PreDestroy
+  public void stop() {
+    worker.shutdownNow();
+  }
+  
+  /**
+   * Queues cleanup for an author. Enqueueing an author twice is a no-op.
+   */
+  public void enqueue(String authorId) {
+    LocalDateTime now = LocalDateTime.now();
+    mongoTemplate.upsert(
+        Query.query(Criteria.where("authorId").is(authorId)),
+        new Update()
+            .setOnInsert("status", AuthorCleanupJobDocument.PENDING)
+            .setOnInsert("processedCount", 0L)
+            .setOnInsert("createdAt", now)
+            .set("updatedAt", now),
+        AuthorCleanupJobDocument.class);
+    log.info("Enqueued post cleanup for deleted author: {}", authorId);
+  }
+  
+  private void runSafely() {
+    // An exception escaping a fixed-delay task would cancel every later run
+    try {
+      run();
+    } catch (Exception e) {
+      log.error("Post cleanup run failed: {}", e.getMessage());
+    }
+  }
+  
+  void run() {
+    AuthorCleanupJobDocument job = claimNextJob();
+    if (job == null) {
+      return;
+    }
+    
+    long deadline = System.currentTimeMillis() + runBudget.toMillis();
+    PostId cursor = job.getCursor() != null ? new PostId(job.getCursor()) : null;
+    long processed = job.getProcessedCount();
+    
+    try {
+      while (System.currentTimeMillis() < deadline) {
+        List<PostId> ids = postRepository.findUndeletedPostIdsByAuthorId(job.getAuthorId(), cursor, batchSize);
+        if (ids.isEmpty()) {
+          finish(job.getAuthorId(), processed);
+          return;
+        }
+        
+        processed += postRepository.softDeleteByIds(ids);
+        cursor = ids.get(ids.size() - 1);
+        saveProgress(job.getAuthorId(), cursor, processed);
+        log.info("Post cleanup for author {}: {} posts deleted so far", job.getAuthorId(), processed);
+        
+        Thread.sleep(batchPause.toMillis());
+      }
+      // Out of budget for this run; release the lease so the next run resumes from the cursor
+      releaseLease(job.getAuthorId());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      releaseLease(job.getAuthorId());
+    } catch (Exception e) {
+      log.error("Post cleanup for author {} failed at cursor {}: {}",
+          job.getAuthorId(), cursor != null ? cursor.getValue() : null, e.getMessage());
+      releaseLease(job.getAuthorId());
+    }
+  }
+  
+  private AuthorCleanupJobDocument claimNextJob() {
+    LocalDateTime now = LocalDateTime.now();
+    Query query = Query.query(new Criteria().andOperator(
+        Criteria.where("status").in(AuthorCleanupJobDocument.PENDING, AuthorCleanupJobDocument.RUNNING),
+        new Criteria().orOperator(
+            Criteria.where("leaseUntil").is(null),
+            Criteria.where("leaseUntil").lt(now))));
+    
+    return mongoTemplate.findAndModify(
+        query,
+        new Update()
+            .set("status", AuthorCleanupJobDocument.RUNNING)
+            .set("leaseOwner", nodeId)
+            .set("leaseUntil", now.plus(lease)),
+        FindAndModifyOptions.options().returnNew(true),
+        AuthorCleanupJobDocument.class);
+  }
+  
+  private void saveProgress(String authorId, PostId cursor, long processed) {
+    LocalDateTime now = LocalDateTime.now();
+    mongoTemplate.updateFirst(
+        ownedJob(authorId),
+        new Update()
+            .set("cursor", cursor.getValue())
+            .set("processedCount", processed)
+            .set("leaseUntil", now.plus(lease))
+            .set("updatedAt", now),
+        AuthorCleanupJobDocument.class);
+  }
+  
+  private void finish(String authorId, long processed) {
+    LocalDateTime now = LocalDateTime.now();
+    mongoTemplate.updateFirst(
+        ownedJob(authorId),
+        new Update()
+            .set("status", AuthorCleanupJobDocument.DONE)
+            .set("processedCount", processed)
+            .unset("leaseOwner")
+            .unset("leaseUntil")
+            .set("updatedAt", now)
+            .set("finishedAt", now),
+        AuthorCleanupJobDocument.class);
+    log.info("Post cleanup for author {} finished: {} posts deleted", authorId, processed);
+  }
+  
+  private void releaseLease(String authorId) {
+    mongoTemplate.updateFirst(
+        ownedJob(authorId),
+        new Update().unset("leaseOwner").unset("leaseUntil"),
+        AuthorCleanupJobDocument.class);
+  }
+  
+  private Query ownedJob(String authorId) {
+    return Query.query(Criteria.where("authorId").is(authorId).and("leaseOwner").is(nodeId));
+  }
+}
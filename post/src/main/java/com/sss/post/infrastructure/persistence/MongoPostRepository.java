@@ -1,17 +1,38 @@
 package com.sss.post.infrastructure.persistence;
 
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Updates;
 import com.sss.post.domain.model.Post;
 import com.sss.post.domain.model.PostId;
 import com.sss.post.domain.enumeration.PostStatus;
 import com.sss.post.domain.enumeration.PostType;
 import com.sss.post.domain.repository.PostRepository;
-import com.sss.post.infrastructure.mapper.PostMapper;
+import com.sss.post.infrastructure.cache.CacheInvalidationBus;
+import com.sss.post.infrastructure.cache.InvalidationMessage;
+import com.sss.post.infrastructure.cache.VersionedCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonType;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Repository;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author : Ducpm56
@@ -22,121 +43,292 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MongoPostRepository implements PostRepository {
   
+  // ObjectId ids are time-ordered, so _id doubles as the creation-time sort key.
+  // Legacy UUID ids are strings, which sort after every ObjectId in descending order.
+  private static final Bson NEWEST_FIRST = Sorts.descending("_id");
+  
+  // Documents fetched per cursor round trip when streaming
+  private static final int STREAM_BATCH_SIZE = 200;
+  
   private final SpringDataPostRepository springDataPostRepository;
-  private final PostMapper postMapper;
+  private final MongoCollection<Post> postCollection;
+  private final VersionedCache<RawBsonDocument> postCache;
+  private final CacheInvalidationBus invalidationBus;
   
   @Override
   public Post save(Post post) {
     log.debug("Saving post with ID: {}", post.getId().getValue());
     
-    PostDocument postDocument = postMapper.toDocument(post);
-    PostDocument savedDocument = springDataPostRepository.save(postDocument);
+    // Only replaces the version the caller read, so versions strictly increase and a
+    // cached copy can never be mistaken for a newer one
+    long expectedVersion = post.getVersion();
+    post.setVersion(expectedVersion + 1);
+    long matched = postCollection.replaceOne(
+        Filters.and(Filters.eq("_id", toBsonId(post.getId().getValue())), versionIs(expectedVersion)),
+        post).getMatchedCount();
+    if (matched == 0) {
+      post.setVersion(expectedVersion);
+      // The copy the caller read may have come from this cache; a retry must read the database
+      postCache.invalidate(post.getId().getValue(), expectedVersion + 1);
+      throw new OptimisticLockingFailureException(
+          "Post " + post.getId().getValue() + " was modified concurrently (expected version " + expectedVersion + ")");
+    }
+    
+    invalidationBus.publish(InvalidationMessage.POST, post.getId().getValue(), post.getVersion());
+    return post;
+  }
+  
+  @Override
+  public Post insert(Post post) {
+    log.debug("Inserting post with ID: {}", post.getId() != null ? post.getId().getValue() : null);
+    
+    post.setVersion(1);
+    // PostCodec encodes the aggregate directly and assigns an id if it is missing
+    postCollection.insertOne(post);
     
-    return postMapper.toDomain(savedDocument);
+    return post;
+  }
+  
+  @Override
+  public Optional<Post> addLikes(PostId id, int delta) {
+    log.debug("Adding {} likes to post with ID: {}", delta, id.getValue());
+    
+    return incrementCounter(id, "like_count", delta, Updates.set("updated_at", new Date()));
+  }
+  
+  @Override
+  public Optional<Post> incrementViewCount(PostId id) {
+    log.debug("Incrementing view count of post with ID: {}", id.getValue());
+    
+    return incrementCounter(id, "view_count", 1);
+  }
+  
+  /**
+   * $inc on the counter and the version, so concurrent increments never
+   * conflict. A decrement only applies while the counter can afford it.
+   */
+  private Optional<Post> incrementCounter(PostId id, String counter, int delta, Bson... extraUpdates) {
+    Object bsonId = toBsonId(id.getValue());
+    Bson filter = delta < 0
+        ? Filters.and(Filters.eq("_id", bsonId), Filters.gte(counter, -delta))
+        : Filters.eq("_id", bsonId);
+    List<Bson> updates = new ArrayList<>(List.of(Updates.inc(counter, delta), Updates.inc("version", 1L)));
+    updates.addAll(List.of(extraUpdates));
+    
+    Post post = postCollection.findOneAndUpdate(filter, Updates.combine(updates),
+        new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+    if (post == null) {
+      // Either there is no such post, or the counter is already at zero and stays there
+      return delta < 0
+          ? Optional.ofNullable(postCollection.find(Filters.eq("_id", bsonId)).first())
+          : Optional.empty();
+    }
+    
+    invalidationBus.publish(InvalidationMessage.POST, id.getValue(), post.getVersion());
+    return Optional.of(post);
   }
   
   @Override
   public Optional<Post> findById(PostId id) {
     log.debug("Finding post by ID: {}", id.getValue());
     
-    Optional<PostDocument> postDocument = springDataPostRepository.findById(id.getValue());
-    return postDocument.map(postMapper::toDomain);
+    RawBsonDocument cached = postCache.get(id.getValue());
+    if (cached != null) {
+      return Optional.of(cached.decode(postCodec()));
+    }
+    
+    Post post = postCollection.find(Filters.eq("_id", toBsonId(id.getValue()))).first();
+    if (post != null) {
+      postCache.put(id.getValue(), new RawBsonDocument(post, postCodec()));
+    }
+    return Optional.ofNullable(post);
+  }
+  
+  @Override
+  public List<Post> findAllById(List<PostId> ids) {
+    log.debug("Finding {} posts by ID", ids.size());
+    
+    List<Object> bsonIds = ids.stream()
+        .map(id -> toBsonId(id.getValue()))
+        .toList();
+    return find(Filters.in("_id", bsonIds));
   }
   
   @Override
   public List<Post> findAll() {
     log.debug("Finding all posts");
     
-    List<PostDocument> postDocuments = springDataPostRepository.findAll();
-    return postDocuments.stream()
-        .map(postMapper::toDomain)
-        .collect(Collectors.toList());
+    return postCollection.find().into(new ArrayList<>());
   }
   
   @Override
   public List<Post> findByAuthorId(String authorId) {
     log.debug("Finding posts by author ID: {}", authorId);
     
-    List<PostDocument> postDocuments = springDataPostRepository.findByAuthorId(authorId);
-    return postDocuments.stream()
-        .map(postMapper::toDomain)
-        .collect(Collectors.toList());
+    return find(Filters.eq("author_id", authorId), NEWEST_FIRST);
   }
   
   @Override
   public List<Post> findByStatus(PostStatus status) {
     log.debug("Finding posts by status: {}", status);
     
-    List<PostDocument> postDocuments = springDataPostRepository.findByStatus(status);
-    return postDocuments.stream()
-        .map(postMapper::toDomain)
-        .collect(Collectors.toList());
+    return find(Filters.eq("status", status.name()));
   }
   
   @Override
   public List<Post> findByPostType(PostType postType) {
     log.debug("Finding posts by type: {}", postType);
     
-    List<PostDocument> postDocuments = springDataPostRepository.findByPostType(postType);
-    return postDocuments.stream()
-        .map(postMapper::toDomain)
-        .collect(Collectors.toList());
+    return find(Filters.eq("post_type", postType.name()));
   }
   
   @Override
   public List<Post> findByAuthorIdAndStatus(String authorId, PostStatus status) {
     log.debug("Finding posts by author ID: {} and status: {}", authorId, status);
     
-    List<PostDocument> postDocuments = springDataPostRepository.findByAuthorIdAndStatus(authorId, status);
-    return postDocuments.stream()
-        .map(postMapper::toDomain)
-        .collect(Collectors.toList());
+    return find(Filters.and(Filters.eq("author_id", authorId), Filters.eq("status", status.name())));
   }
   
   @Override
   public List<Post> findPublishedPosts() {
     log.debug("Finding all published posts");
     
-    List<PostDocument> postDocuments = springDataPostRepository.findPublishedPosts();
-    return postDocuments.stream()
-        .map(postMapper::toDomain)
-        .collect(Collectors.toList());
+    return find(Filters.eq("status", PostStatus.PUBLISHED.name()), NEWEST_FIRST);
   }
   
   @Override
   public List<Post> findPublishedPostsByAuthorId(String authorId) {
     log.debug("Finding published posts by author ID: {}", authorId);
     
-    List<PostDocument> postDocuments = springDataPostRepository.findPublishedPostsByAuthorId(authorId);
-    return postDocuments.stream()
-        .map(postMapper::toDomain)
-        .collect(Collectors.toList());
+    return find(Filters.and(Filters.eq("author_id", authorId), Filters.eq("status", PostStatus.PUBLISHED.name())), NEWEST_FIRST);
   }
   
   @Override
   public List<Post> findByTags(List<String> tags) {
     log.debug("Finding posts by tags: {}", tags);
     
-    List<PostDocument> postDocuments = springDataPostRepository.findByTags(tags);
-    return postDocuments.stream()
-        .map(postMapper::toDomain)
-        .collect(Collectors.toList());
+    return find(Filters.in("tags", tags));
   }
   
   @Override
   public List<Post> searchByContent(String keyword) {
     log.debug("Searching posts by keyword: {}", keyword);
     
-    List<PostDocument> postDocuments = springDataPostRepository.searchByContent(keyword);
-    return postDocuments.stream()
-        .map(postMapper::toDomain)
-        .collect(Collectors.toList());
+    return find(Filters.or(Filters.regex("title", keyword, "i"), Filters.regex("content", keyword, "i")));
+  }
+  
+  @Override
+  public Stream<Post> streamPublicPosts(String authorId) {
+    log.debug("Streaming public posts by author ID: {}", authorId);
+    
+    List<Bson> filters = new ArrayList<>();
+    filters.add(Filters.eq("status", PostStatus.PUBLISHED.name()));
+    filters.add(Filters.eq("is_public", true));
+    if (authorId != null) {
+      filters.add(Filters.eq("author_id", authorId));
+    }
+    
+    MongoCursor<Post> cursor = postCollection.find(Filters.and(filters))
+        .sort(NEWEST_FIRST)
+        .batchSize(STREAM_BATCH_SIZE)
+        .cursor();
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+        .onClose(cursor::close);
+  }
+  
+  private List<Post> find(Bson filter) {
+    return postCollection.find(filter).into(new ArrayList<>());
+  }
+  
+  private List<Post> find(Bson filter, Bson sort) {
+    return postCollection.find(filter).sort(sort).into(new ArrayList<>());
+  }
+  
+  private Bson idAfter(String id) {
+    Object bsonId = toBsonId(id);
+    if (bsonId instanceof ObjectId) {
+      return Filters.gt("_id", bsonId);
+    }
+    // $gt only compares values of the same BSON type, and legacy String ids
+    // sort before every ObjectId, so the ObjectIds all come after a String cursor
+    return Filters.or(Filters.gt("_id", bsonId), Filters.type("_id", BsonType.OBJECT_ID));
+  }
+  
+  private Bson versionIs(long version) {
+    // Documents written before versioning have no version field and read as 0
+    return version == 0
+        ? Filters.or(Filters.eq("version", 0L), Filters.exists("version", false))
+        : Filters.eq("version", version);
+  }
+  
+  private Codec<Post> postCodec() {
+    return postCollection.getCodecRegistry().get(Post.class);
+  }
+  
+  private Object toBsonId(String id) {
+    // Mirrors MappingMongoConverter, which stores ObjectId-shaped String ids as ObjectIds
+    return ObjectId.isValid(id) ? new ObjectId(id) : id;
+  }
+  
+  @Override
+  public long updateAuthorProfile(String authorId, String authorName, String authorAvatar) {
+    log.debug("Updating author profile on posts of author ID: {}", authorId);
+    
+    long modified = postCollection.updateMany(
+        Filters.eq("author_id", authorId),
+        Updates.combine(
+            Updates.set("author_name", authorName),
+            Updates.set("author_avatar", authorAvatar),
+            Updates.inc("version", 1L)
+        )).getModifiedCount();
+    // The new versions are not known here; evict every cached post of the author
+    invalidationBus.publish(InvalidationMessage.POST_AUTHOR, authorId, 0);
+    return modified;
+  }
+  
+  @Override
+  public List<PostId> findUndeletedPostIdsByAuthorId(String authorId, PostId after, int limit) {
+    Bson filter = Filters.and(
+        Filters.eq("author_id", authorId),
+        Filters.ne("status", PostStatus.DELETED.name()));
+    if (after != null) {
+      filter = Filters.and(filter, idAfter(after.getValue()));
+    }
+    
+    return postCollection.find(filter)
+        .projection(Projections.include("_id"))
+        .sort(Sorts.ascending("_id"))
+        .limit(limit)
+        .map(Post::getId)
+        .into(new ArrayList<>());
+  }
+  
+  @Override
+  public long softDeleteByIds(List<PostId> ids) {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    
+    List<Object> bsonIds = ids.stream()
+        .map(id -> toBsonId(id.getValue()))
+        .toList();
+    long modified = postCollection.updateMany(
+        Filters.in("_id", bsonIds),
+        Updates.combine(
+            Updates.set("status", PostStatus.DELETED.name()),
+            Updates.set("updated_at", new Date()),
+            Updates.inc("version", 1L)
+        )).getModifiedCount();
+    invalidationBus.publishAll(InvalidationMessage.POST,
+        ids.stream().map(PostId::getValue).toList(), InvalidationMessage.DELETED);
+    return modified;
   }
   
   @Override
   public void deleteById(PostId id) {
     log.debug("Deleting post by ID: {}", id.getValue());
     springDataPostRepository.deleteById(id.getValue());
+    invalidationBus.publish(InvalidationMessage.POST, id.getValue(), InvalidationMessage.DELETED);
   }
   
   @Override
@@ -8,6 +8,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 import java.time.LocalDateTime;
@@ -22,6 +24,12 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Document(collection = "posts")
+@CompoundIndexes({
+    @CompoundIndex(name = "status_id", def = "{'status': 1, '_id': -1}"),
+    @CompoundIndex(name = "author_status_id", def = "{'author_id': 1, 'status': 1, '_id': -1}"),
+    // All of an author's posts in id order, whatever their status
+    @CompoundIndex(name = "author_id", def = "{'author_id': 1, '_id': -1}")
+})
 public class PostDocument {
   
   @Id
@@ -121,4 +129,6 @@ public class PostDocument {
   
   @Field("moderated_at")
   private LocalDateTime moderatedAt;
+  
+  private long version;
 }
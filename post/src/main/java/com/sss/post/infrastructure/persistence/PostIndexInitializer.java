@@ -0,0 +1,37 @@
+package com.sss.post.infrastructure.persistence;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the indexes declared on {@link PostDocument} at startup.
+ * <p>
+ * {@code spring.data.mongodb.auto-index-creation} is off, so without this
+ * the {@code _id}-ordered keyset queries of {@link MongoPostRepository}
+ * would scan the collection. Creating an index that already exists is a
+ * no-op, so this is safe on every start and also covers databases created
+ * before the indexes were declared.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostIndexInitializer {
+  
+  private final MongoTemplate mongoTemplate;
+  
+  @PostConstruct
+  public void ensureIndexes() {
+    IndexOperations indexOperations = mongoTemplate.indexOps(PostDocument.class);
+    new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+        .resolveIndexFor(PostDocument.class)
+        .forEach(index -> log.debug("Ensured post index {}", indexOperations.ensureIndex(index)));
+  }
+}
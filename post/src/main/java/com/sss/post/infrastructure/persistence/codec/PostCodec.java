@@ -0,0 +1,302 @@
+package com.sss.post.infrastructure.persistence.codec;
+
+import com.sss.post.domain.enumeration.PostStatus;
+import com.sss.post.domain.enumeration.PostType;
+import com.sss.post.domain.model.PollOption;
+import com.sss.post.domain.model.Post;
+import com.sss.post.domain.model.PostId;
+import com.sss.post.infrastructure.persistence.PostDocument;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import org.bson.BsonObjectId;
+import org.bson.BsonReader;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+/**
+ * Hand-written codec for the {@code posts} collection.
+ * <p>
+ * Reads BSON straight into the {@link Post} domain model, skipping the
+ * reflective {@code MappingMongoConverter} pass into {@link PostDocument} and
+ * the MapStruct copy that follows it. The field layout mirrors
+ * {@link PostDocument} exactly (including how Spring Data stores
+ * {@link LocalDateTime} and enums) so documents written by either path can be
+ * read by the other.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public class PostCodec implements CollectibleCodec<Post> {
+  
+  static final String TYPE_HINT = PostDocument.class.getName();
+  
+  private final ZoneId zoneId = ZoneId.systemDefault();
+  
+  @Override
+  public Post decode(BsonReader reader, DecoderContext decoderContext) {
+    Post post = new Post();
+    
+    reader.readStartDocument();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      String name = reader.readName();
+      
+      if (reader.getCurrentBsonType() == BsonType.NULL) {
+        reader.readNull();
+        continue;
+      }
+      
+      switch (name) {
+        case "_id" -> post.setId(new PostId(readId(reader)));
+        case "author_id" -> post.setAuthorId(reader.readString());
+        case "author_name" -> post.setAuthorName(reader.readString());
+        case "author_avatar" -> post.setAuthorAvatar(reader.readString());
+        case "title" -> post.setTitle(reader.readString());
+        case "content" -> post.setContent(reader.readString());
+        case "post_type" -> post.setPostType(PostType.valueOf(reader.readString()));
+        case "status" -> post.setStatus(PostStatus.valueOf(reader.readString()));
+        case "image_urls" -> post.setImageUrls(readStrings(reader));
+        case "video_urls" -> post.setVideoUrls(readStrings(reader));
+        case "thumbnail_url" -> post.setThumbnailUrl(reader.readString());
+        case "like_count" -> post.setLikeCount(readInt(reader));
+        case "comment_count" -> post.setCommentCount(readInt(reader));
+        case "share_count" -> post.setShareCount(readInt(reader));
+        case "view_count" -> post.setViewCount(readInt(reader));
+        case "poll_options" -> post.setPollOptions(readPollOptions(reader));
+        case "poll_end_time" -> post.setPollEndTime(readDateTime(reader));
+        case "event_start_time" -> post.setEventStartTime(readDateTime(reader));
+        case "event_end_time" -> post.setEventEndTime(readDateTime(reader));
+        case "event_location" -> post.setEventLocation(reader.readString());
+        case "is_public" -> post.setPublic(reader.readBoolean());
+        case "allowed_viewers" -> post.setAllowedViewers(readStrings(reader));
+        case "tags" -> post.setTags(readStrings(reader));
+        case "created_at" -> post.setCreatedAt(readDateTime(reader));
+        case "updated_at" -> post.setUpdatedAt(readDateTime(reader));
+        case "published_at" -> post.setPublishedAt(readDateTime(reader));
+        case "created_by" -> post.setCreatedBy(reader.readString());
+        case "updated_by" -> post.setUpdatedBy(reader.readString());
+        case "is_moderated" -> post.setModerated(reader.readBoolean());
+        case "moderator_id" -> post.setModeratorId(reader.readString());
+        case "moderation_note" -> post.setModerationNote(reader.readString());
+        case "moderated_at" -> post.setModeratedAt(readDateTime(reader));
+        case "version" -> post.setVersion(readLong(reader));
+        default -> reader.skipValue();
+      }
+    }
+    reader.readEndDocument();
+    
+    return post;
+  }
+  
+  @Override
+  public void encode(BsonWriter writer, Post post, EncoderContext encoderContext) {
+    writer.writeStartDocument();
+    
+    if (post.getId() != null && post.getId().getValue() != null) {
+      writeId(writer, post.getId().getValue());
+    }
+    writeString(writer, "author_id", post.getAuthorId());
+    writeString(writer, "author_name", post.getAuthorName());
+    writeString(writer, "author_avatar", post.getAuthorAvatar());
+    writeString(writer, "title", post.getTitle());
+    writeString(writer, "content", post.getContent());
+    writeEnum(writer, "post_type", post.getPostType());
+    writeEnum(writer, "status", post.getStatus());
+    writeStrings(writer, "image_urls", post.getImageUrls());
+    writeStrings(writer, "video_urls", post.getVideoUrls());
+    writeString(writer, "thumbnail_url", post.getThumbnailUrl());
+    writer.writeInt32("like_count", post.getLikeCount());
+    writer.writeInt32("comment_count", post.getCommentCount());
+    writer.writeInt32("share_count", post.getShareCount());
+    writer.writeInt32("view_count", post.getViewCount());
+    writePollOptions(writer, post.getPollOptions());
+    writeDateTime(writer, "poll_end_time", post.getPollEndTime());
+    writeDateTime(writer, "event_start_time", post.getEventStartTime());
+    writeDateTime(writer, "event_end_time", post.getEventEndTime());
+    writeString(writer, "event_location", post.getEventLocation());
+    writer.writeBoolean("is_public", post.isPublic());
+    writeStrings(writer, "allowed_viewers", post.getAllowedViewers());
+    writeStrings(writer, "tags", post.getTags());
+    writeDateTime(writer, "created_at", post.getCreatedAt());
+    writeDateTime(writer, "updated_at", post.getUpdatedAt());
+    writeDateTime(writer, "published_at", post.getPublishedAt());
+    writeString(writer, "created_by", post.getCreatedBy());
+    writeString(writer, "updated_by", post.getUpdatedBy());
+    writer.writeBoolean("is_moderated", post.isModerated());
+    writeString(writer, "moderator_id", post.getModeratorId());
+    writeString(writer, "moderation_note", post.getModerationNote());
+    writeDateTime(writer, "moderated_at", post.getModeratedAt());
+    writer.writeInt64("version", post.getVersion());
+    
+    // Keep the type hint so MappingMongoConverter reads these documents the same way
+    writer.writeString("_class", TYPE_HINT);
+    
+    writer.writeEndDocument();
+  }
+  
+  @Override
+  public Class<Post> getEncoderClass() {
+    return Post.class;
+  }
+  
+  @Override
+  public boolean documentHasId(Post post) {
+    return post.getId() != null && post.getId().getValue() != null;
+  }
+  
+  @Override
+  public Post generateIdIfAbsentFromDocument(Post post) {
+    if (!documentHasId(post)) {
+      post.setId(new PostId(new ObjectId().toHexString()));
+    }
+    return post;
+  }
+  
+  @Override
+  public BsonValue getDocumentId(Post post) {
+    if (!documentHasId(post)) {
+      throw new IllegalStateException("The post does not contain an _id");
+    }
+    String id = post.getId().getValue();
+    return ObjectId.isValid(id) ? new BsonObjectId(new ObjectId(id)) : new BsonString(id);
+  }
+  
+  private String readId(BsonReader reader) {
+    // Spring Data stores String ids that look like ObjectIds as native ObjectIds
+    if (reader.getCurrentBsonType() == BsonType.OBJECT_ID) {
+      return reader.readObjectId().toHexString();
+    }
+    return reader.readString();
+  }
+  
+  private int readInt(BsonReader reader) {
+    return switch (reader.getCurrentBsonType()) {
+      case INT64 -> (int) reader.readInt64();
+      case DOUBLE -> (int) reader.readDouble();
+      default -> reader.readInt32();
+    };
+  }
+  
+  private long readLong(BsonReader reader) {
+    return switch (reader.getCurrentBsonType()) {
+      case INT32 -> reader.readInt32();
+      case DOUBLE -> (long) reader.readDouble();
+      default -> reader.readInt64();
+    };
+  }
+  
+  private LocalDateTime readDateTime(BsonReader reader) {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(reader.readDateTime()), zoneId);
+  }
+  
+  private List<String> readStrings(BsonReader reader) {
+    List<String> values = new ArrayList<>();
+    reader.readStartArray();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      if (reader.getCurrentBsonType() == BsonType.NULL) {
+        reader.readNull();
+        values.add(null);
+      } else {
+        values.add(reader.readString());
+      }
+    }
+    reader.readEndArray();
+    return values;
+  }
+  
+  private List<PollOption> readPollOptions(BsonReader reader) {
+    List<PollOption> options = new ArrayList<>();
+    reader.readStartArray();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      PollOption option = new PollOption();
+      reader.readStartDocument();
+      while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+        String name = reader.readName();
+        
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+          reader.readNull();
+          continue;
+        }
+        
+        switch (name) {
+          case "_id", "id" -> option.setId(readId(reader));
+          case "text" -> option.setText(reader.readString());
+          case "voteCount" -> option.setVoteCount(readInt(reader));
+          case "imageUrl" -> option.setImageUrl(reader.readString());
+          default -> reader.skipValue();
+        }
+      }
+      reader.readEndDocument();
+      options.add(option);
+    }
+    reader.readEndArray();
+    return options;
+  }
+  
+  private void writeId(BsonWriter writer, String id) {
+    // Same rule as MappingMongoConverter for String ids
+    if (ObjectId.isValid(id)) {
+      writer.writeObjectId("_id", new ObjectId(id));
+    } else {
+      writer.writeString("_id", id);
+    }
+  }
+  
+  private void writeString(BsonWriter writer, String name, String value) {
+    if (value != null) {
+      writer.writeString(name, value);
+    }
+  }
+  
+  private void writeEnum(BsonWriter writer, String name, Enum<?> value) {
+    if (value != null) {
+      writer.writeString(name, value.name());
+    }
+  }
+  
+  private void writeDateTime(BsonWriter writer, String name, LocalDateTime value) {
+    if (value != null) {
+      writer.writeDateTime(name, value.atZone(zoneId).toInstant().toEpochMilli());
+    }
+  }
+  
+  private void writeStrings(BsonWriter writer, String name, List<String> values) {
+    if (values == null) {
+      return;
+    }
+    writer.writeStartArray(name);
+    for (String value : values) {
+      if (value == null) {
+        writer.writeNull();
+      } else {
+        writer.writeString(value);
+      }
+    }
+    writer.writeEndArray();
+  }
+  
+  private void writePollOptions(BsonWriter writer, List<PollOption> options) {
+    if (options == null) {
+      return;
+    }
+    writer.writeStartArray("poll_options");
+    for (PollOption option : options) {
+      writer.writeStartDocument();
+      // MappingMongoConverter maps a nested "id" property to "_id"
+      writeString(writer, "_id", option.getId());
+      writeString(writer, "text", option.getText());
+      writer.writeInt32("voteCount", option.getVoteCount());
+      writeString(writer, "imageUrl", option.getImageUrl());
+      writer.writeEndDocument();
+    }
+    writer.writeEndArray();
+  }
+}
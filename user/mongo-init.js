@@ -12,7 +12,15 @@ db.users.createIndex({ "characterName": 1 }); // Index cho tên nhân vật
 db.users.createIndex({ "animeMangaSource": 1 }); // Index cho nguồn anime/manga
 db.users.createIndex({ "isActive": 1 }); // Index cho trạng thái hoạt động
 db.users.createIndex({ "isVerified": 1 }); // Index cho trạng thái xác thực
+// Indexes cho sắp xếp + keyset pagination ở trang admin (createdAt, userType+createdAt; username đã unique)
+db.users.createIndex({ "createdAt": 1, "_id": 1 });
+db.users.createIndex({ "userType": 1, "createdAt": 1, "_id": 1 });
+db.users.createIndex({ "searchTokens": 1, "username": 1 }); // Multikey index cho tìm kiếm theo tiền tố, email, domain (typeahead theo thứ tự username)
+
+// Outbox sự kiện user, đọc theo offset
+db.createCollection('user_events');
+db.user_events.createIndex({ "offset": 1 }, { unique: true });
 
 print('✅ Database sss_user_db initialized successfully!');
 print('✅ Collection users created with indexes!');
-print('✅ Indexes created for: username, email, userType, characterName, animeMangaSource, isActive, isVerified');
+print('✅ Indexes created for: username, email, userType, characterName, animeMangaSource, isActive, isVerified, createdAt+_id, userType+createdAt+_id, searchTokens+username');
@@ -0,0 +1,87 @@
+package com.sss.user.infrastructure.security;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Authorities for one request's JWT: the per-request set the security
+ * config used to build, with the two lines it printed for every request,
+ * versus {@link RoleAuthoritiesMapper}. Printing goes to a discarding
+ * stream, so the strings are still built and encoded but the console is
+ * not flooded. Run with
+ * {@code ./gradlew jmh} and compare {@code gc.alloc.rate.norm} (bytes per
+ * operation).
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RoleAuthoritiesMapperBenchmark {
+
+  private Jwt jwt;
+  private RoleAuthoritiesMapper mapper;
+  private PrintStream stdout;
+
+  @Setup
+  public void setUp() {
+    // Keycloak's default realm roles plus an application role, as a parsed token carries them
+    List<String> roles = new ArrayList<>(List.of("offline_access", "uma_authorization", "default-roles-sss-realm", "ADMIN"));
+    jwt = Jwt.withTokenValue("token")
+        .header("alg", "RS256")
+        .subject("user-1")
+        .claim("realm_access", Map.of("roles", roles))
+        .issuedAt(Instant.now())
+        .expiresAt(Instant.now().plusSeconds(300))
+        .build();
+    mapper = new RoleAuthoritiesMapper(Long.MAX_VALUE);
+
+    stdout = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+  }
+
+  @TearDown
+  public void tearDown() {
+    System.setOut(stdout);
+  }
+
+  @Benchmark
+  public Collection<GrantedAuthority> perRequestSet() {
+    Set<GrantedAuthority> authorities = new HashSet<>();
+    Object realmAccess = jwt.getClaim("realm_access");
+    if (realmAccess instanceof Map<?, ?> realmAccessMap && realmAccessMap.get("roles") instanceof List<?> roles) {
+      for (Object role : roles) {
+        String name = (String) role;
+        authorities.add(new SimpleGrantedAuthority(name.startsWith("ROLE_") ? name : "ROLE_" + name));
+      }
+    }
+    System.out.println("🔑 JWT Claims - realm_access: " + realmAccess);
+    System.out.println("🔑 Extracted authorities: " + authorities);
+    return authorities;
+  }
+
+  @Benchmark
+  public Collection<GrantedAuthority> internedSet() {
+    return mapper.convert(jwt);
+  }
+}
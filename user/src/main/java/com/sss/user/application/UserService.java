@@ -1,16 +1,32 @@
 package com.sss.user.application;
 
+import com.mongodb.MongoException;
 import com.sss.user.domain.enumeration.UserType;
+import com.sss.user.domain.event.UserEvent;
 import com.sss.user.domain.exception.UserNotFoundException;
 import com.sss.user.domain.model.User;
 import com.sss.user.domain.model.UserId;
+import com.sss.user.domain.repository.SyncedIdentity;
+import com.sss.user.domain.repository.UserEventRepository;
+import com.sss.user.domain.repository.UserQuery;
 import com.sss.user.domain.repository.UserRepository;
+import com.sss.user.domain.repository.UserSlice;
+import com.sss.user.domain.repository.UserSort;
 import com.sss.user.infrastructure.dto.UpdateUserRequest;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * @author : Ducpm56
@@ -20,7 +36,11 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class UserService {
 
+  private static final int MAX_SAVE_ATTEMPTS = 3;
+
   private final UserRepository userRepository;
+  private final UserEventRepository userEventRepository;
+  private final TransactionTemplate transactionTemplate;
 
   public User registerUser(String username, String email, String displayName, UserType type) {
     User user = User.builder()
@@ -49,9 +69,12 @@ public class UserService {
     return userRepository.save(user);
   }
 
+  @Transactional
   public User updateUserProfile(UserId userId, UpdateUserRequest request) {
     User user = userRepository.findById(userId)
         .orElseThrow(() -> new UserNotFoundException("User not found"));
+    String previousDisplayName = user.getDisplayName();
+    String previousDisplayAvatar = user.getDisplayAvatar();
     
     // Cập nhật thông tin cơ bản
     if (request.fullName() != null) {
@@ -106,35 +129,78 @@ public class UserService {
     // Cập nhật thời gian
     user.setUpdatedAt(LocalDateTime.now());
     
-    return userRepository.save(user);
+    User savedUser = userRepository.save(user);
+    
+    // Ghi sự kiện vào outbox để post service cập nhật author_name/author_avatar
+    if (!Objects.equals(previousDisplayName, savedUser.getDisplayName())
+        || !Objects.equals(previousDisplayAvatar, savedUser.getDisplayAvatar())) {
+      userEventRepository.append(UserEvent.profileChanged(
+          savedUser.getId().value(), savedUser.getDisplayName(), savedUser.getDisplayAvatar()));
+    }
+    
+    return savedUser;
   }
 
   public Optional<User> getUserById(UserId id) {
     return userRepository.findById(id);
   }
 
+  /**
+   * Bulk lookup for other services; users that do not exist are left out
+   */
+  public List<User> getUsersByIds(List<UserId> ids) {
+    return userRepository.findAllById(ids);
+  }
+
   public List<User> getAllUsers() {
     return userRepository.findAll();
   }
 
+  public Page<User> searchUsers(UserQuery query, Pageable pageable) {
+    return userRepository.search(query, pageable);
+  }
+
+  public UserSlice searchUsersAfter(UserQuery query, UserSort sort, String cursor, int limit) {
+    return userRepository.searchAfter(query, sort, cursor, limit);
+  }
+
+  public List<User> typeahead(String prefix, int limit) {
+    return userRepository.typeahead(prefix, limit);
+  }
+
+  public java.util.stream.Stream<User> streamAllUsers() {
+    return userRepository.streamAll();
+  }
+
   public User login(String username, String password) {
-    var user = userRepository.findByUsername(username)
-        .orElseThrow(() -> new UserNotFoundException("User not found"));
-    
     // Sử dụng method login có sẵn trong User
-    user.login(password);
-    
-    return userRepository.save(user);
+    return modifyByUsername(username, user -> user.login(password));
   }
 
   public User logout(String username) {
-    var user = userRepository.findByUsername(username)
-        .orElseThrow(() -> new UserNotFoundException("User not found"));
-    
     // Sử dụng method logout có sẵn trong User
-    user.logout();
-    
-    return userRepository.save(user);
+    return modifyByUsername(username, User::logout);
+  }
+
+  /**
+   * Reads the user, applies the change and saves it, starting over from a
+   * fresh read when a concurrent save wins the version check (two logins of
+   * the same user at once). Gives up after {@value #MAX_SAVE_ATTEMPTS}
+   * attempts.
+   */
+  private User modifyByUsername(String username, Consumer<User> change) {
+    for (int attempt = 1; ; attempt++) {
+      User user = userRepository.findByUsername(username)
+          .orElseThrow(() -> new UserNotFoundException("User not found"));
+      change.accept(user);
+      try {
+        return userRepository.save(user);
+      } catch (OptimisticLockingFailureException e) {
+        if (attempt >= MAX_SAVE_ATTEMPTS) {
+          throw e;
+        }
+      }
+    }
   }
 
   public User findByUsername(String username) {
@@ -143,22 +209,41 @@ public class UserService {
   }
 
   /**
-   * Create new user from Keycloak authentication
+   * Create or update a user from Keycloak claims in one atomic upsert. A
+   * changed display name or avatar is recorded in the outbox in the same
+   * transaction, as {@link #updateUserProfile} does.
    */
-  public User createUserFromKeycloak(String username, String email, String fullName) {
-    User user = User.builder()
-        .id(UserId.generate())
-        .username(username)
-        .email(email != null ? email : "")
-        .fullName(fullName != null ? fullName : username)
-        .userType(UserType.REAL_USER)
-        .isActive(true)
-        .isVerified(true) // Keycloak users are considered verified
-        .isLoggedIn(true)
-        .createdAt(LocalDateTime.now())
-        .updatedAt(LocalDateTime.now())
-        .build();
-    return userRepository.save(user);
+  public User syncFromKeycloak(String username, String email, String fullName, UserType userType) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return transactionTemplate.execute(status -> syncIdentity(username, email, fullName, userType));
+      } catch (DataAccessException e) {
+        // A concurrent first login of the same user fails one of the two transactions;
+        // a duplicate key that persists is another user's email
+        if (attempt >= MAX_SAVE_ATTEMPTS || !(e instanceof DuplicateKeyException || isTransient(e))) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  private User syncIdentity(String username, String email, String fullName, UserType userType) {
+    SyncedIdentity synced = userRepository.syncIdentity(username, email, fullName, userType);
+    User previous = synced.previous();
+    User current = synced.current();
+    // A new user has no posts to update yet
+    if (previous != null
+        && (!Objects.equals(previous.getDisplayName(), current.getDisplayName())
+            || !Objects.equals(previous.getDisplayAvatar(), current.getDisplayAvatar()))) {
+      userEventRepository.append(UserEvent.profileChanged(
+          current.getId().value(), current.getDisplayName(), current.getDisplayAvatar()));
+    }
+    return current;
+  }
+
+  private static boolean isTransient(DataAccessException e) {
+    return e.getMostSpecificCause() instanceof MongoException mongo
+        && mongo.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
   }
 
   /**
@@ -221,12 +306,15 @@ public class UserService {
   }
 
   /**
-   * Delete user by ID
+   * Delete user by ID. Posts of the user are cleaned up asynchronously by the
+   * post service from the USER_DELETED event.
    */
+  @Transactional
   public void deleteUser(UserId userId) {
     if (!userRepository.findById(userId).isPresent()) {
       throw new UserNotFoundException("User not found");
     }
     userRepository.delete(userId);
+    userEventRepository.append(UserEvent.deleted(userId.value()));
   }
 }
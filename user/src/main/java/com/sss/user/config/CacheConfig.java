@@ -0,0 +1,35 @@
+package com.sss.user.config;
+
+import com.sss.user.infrastructure.cache.CacheInvalidationBus;
+import com.sss.user.infrastructure.cache.InvalidationMessage;
+import com.sss.user.infrastructure.cache.VersionedCache;
+import com.sss.user.infrastructure.persistence.UserDocument;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Local {@code findById} cache for users, kept coherent across nodes by the
+ * {@link CacheInvalidationBus}.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Configuration
+public class CacheConfig {
+
+  @Bean
+  public VersionedCache<UserDocument> userCache(
+      CacheInvalidationBus invalidationBus,
+      @Value("${app.cache.user.ttl:60s}") Duration ttl,
+      @Value("${app.cache.user.max-size:10000}") int maxSize) {
+    // Documents are cached rather than users; every hit maps a fresh User callers may mutate
+    VersionedCache<UserDocument> cache = new VersionedCache<>(UserDocument::getVersion, ttl, maxSize);
+
+    invalidationBus.subscribe(InvalidationMessage.USER,
+        message -> cache.invalidate(message.id(), message.version()));
+    invalidationBus.onResync(cache::clear);
+    return cache;
+  }
+}
@@ -0,0 +1,20 @@
+package com.sss.user.config;
+
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Configuration
+public class GraphQLConfig {
+
+  @Bean
+  public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(
+      @Value("${app.graphql.max-depth:10}") int maxDepth) {
+    return new MaxQueryDepthInstrumentation(maxDepth);
+  }
+}
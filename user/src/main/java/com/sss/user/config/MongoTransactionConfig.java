@@ -0,0 +1,22 @@
+package com.sss.user.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * Enables {@code @Transactional} for MongoDB so user writes and their outbox
+ * events commit together. Transactions need a replica set (see docker-compose.yml).
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Configuration
+public class MongoTransactionConfig {
+
+  @Bean
+  public MongoTransactionManager transactionManager(MongoDatabaseFactory mongoDatabaseFactory) {
+    return new MongoTransactionManager(mongoDatabaseFactory);
+  }
+}
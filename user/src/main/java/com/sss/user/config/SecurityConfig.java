@@ -1,5 +1,16 @@
 package com.sss.user.config;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.sss.user.infrastructure.security.CachingJwtDecoder;
+import com.sss.user.infrastructure.security.DispatchingJwtDecoder;
+import com.sss.user.infrastructure.security.InternalApiTokenFilter;
+import com.sss.user.infrastructure.security.LocalTokenService;
+import com.sss.user.infrastructure.security.RefreshingJwkSource;
+import com.sss.user.infrastructure.security.RoleAuthoritiesMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -7,14 +18,18 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.net.URL;
+import java.time.Duration;
 import java.util.Arrays;
 
 /**
@@ -29,7 +44,9 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           JwtAuthenticationConverter jwtAuthenticationConverter,
+                                           @Value("${app.internal-api.token}") String internalApiToken) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -53,6 +70,8 @@ public class SecurityConfig {
                 .requestMatchers("/graphiql/**").permitAll()
                 .requestMatchers("/subscriptions").permitAll()
                 .requestMatchers("/actuator/health").permitAll()
+                // Service-to-service feeds, authenticated with the shared internal token
+                .requestMatchers("/api/internal/**").hasRole(InternalApiTokenFilter.ROLE)
                 // Admin endpoints - require ADMIN role
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 // Protected endpoints
@@ -60,9 +79,10 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/profile").authenticated()
                 .anyRequest().authenticated()
             )
+            .addFilterBefore(new InternalApiTokenFilter(internalApiToken), BearerTokenAuthenticationFilter.class)
             .oauth2ResourceServer(oauth2 -> oauth2
                 .jwt(jwt -> jwt
-                    .jwtAuthenticationConverter(jwtAuthenticationConverter())
+                    .jwtAuthenticationConverter(jwtAuthenticationConverter)
                 )
             );
 
@@ -70,35 +90,10 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+    public JwtAuthenticationConverter jwtAuthenticationConverter(RoleAuthoritiesMapper roleAuthoritiesMapper) {
         JwtAuthenticationConverter authenticationConverter = new JwtAuthenticationConverter();
-        authenticationConverter.setJwtGrantedAuthoritiesConverter(jwt -> {
-            java.util.Set<org.springframework.security.core.GrantedAuthority> authorities = new java.util.HashSet<>();
-            
-            // Extract roles from realm_access.roles
-            Object realmAccess = jwt.getClaim("realm_access");
-            if (realmAccess instanceof java.util.Map) {
-                @SuppressWarnings("unchecked")
-                java.util.Map<String, Object> realmAccessMap = (java.util.Map<String, Object>) realmAccess;
-                Object roles = realmAccessMap.get("roles");
-                if (roles instanceof java.util.List) {
-                    @SuppressWarnings("unchecked")
-                    java.util.List<String> rolesList = (java.util.List<String>) roles;
-                    for (String role : rolesList) {
-                        // Add role as-is if it already has ROLE_ prefix, otherwise add prefix
-                        if (role.startsWith("ROLE_")) {
-                            authorities.add(new org.springframework.security.core.authority.SimpleGrantedAuthority(role));
-                        } else {
-                            authorities.add(new org.springframework.security.core.authority.SimpleGrantedAuthority("ROLE_" + role));
-                        }
-                    }
-                }
-            }
-            
-            System.out.println("🔑 JWT Claims - realm_access: " + realmAccess);
-            System.out.println("🔑 Extracted authorities: " + authorities);
-            return authorities;
-        });
+        // Shared, interned authority sets from realm_access.roles
+        authenticationConverter.setJwtGrantedAuthoritiesConverter(roleAuthoritiesMapper);
         
         // Set the principal name claim
         authenticationConverter.setPrincipalClaimName("preferred_username");
@@ -120,8 +115,31 @@ public class SecurityConfig {
         return source;
     }
 
+    @Bean(destroyMethod = "close")
+    public RefreshingJwkSource keycloakJwkSource(
+            @Value("${app.jwt.jwks.uri:http://localhost:8080/realms/sss-realm/protocol/openid-connect/certs}") URL jwkSetUrl,
+            @Value("${app.jwt.jwks.refresh-interval:5m}") Duration refreshInterval,
+            @Value("${app.jwt.jwks.min-refresh-gap:30s}") Duration minRefreshGap,
+            @Value("${app.jwt.jwks.timeout:2s}") Duration timeout) {
+        return new RefreshingJwkSource(jwkSetUrl, refreshInterval, minRefreshGap, timeout);
+    }
+
+    /**
+     * Keycloak tokens and the HS256 tokens issued by direct/hybrid login.
+     * Verified tokens of either kind are cached until they expire.
+     */
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withJwkSetUri("http://localhost:8080/realms/sss-realm/protocol/openid-connect/certs").build();
+    public JwtDecoder jwtDecoder(LocalTokenService localTokenService,
+                                 RefreshingJwkSource keycloakJwkSource,
+                                 @Value("${app.jwt.decoded-cache.max-size:10000}") int decodedCacheSize) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keycloakJwkSource));
+        // Claims are checked by the Spring validators below
+        processor.setJWTClaimsSetVerifier((claims, context) -> { });
+        NimbusJwtDecoder keycloakDecoder = new NimbusJwtDecoder(processor);
+        keycloakDecoder.setJwtValidator(JwtValidators.createDefault());
+
+        return new CachingJwtDecoder(
+            new DispatchingJwtDecoder(localTokenService.decoder(), keycloakDecoder), decodedCacheSize);
     }
 }
@@ -0,0 +1,10 @@
+package com.sss.user.domain.enumeration;
+
+/**
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public enum UserEventType {
+  PROFILE_CHANGED,  // Đổi tên hiển thị / ảnh đại diện
+  USER_DELETED      // User bị xóa, các dịch vụ khác dọn dữ liệu của user
+}
@@ -0,0 +1,28 @@
+package com.sss.user.domain.event;
+
+import com.sss.user.domain.enumeration.UserEventType;
+import java.time.LocalDateTime;
+
+/**
+ * Event recorded in the user outbox. {@code offset} is assigned when the
+ * event is appended and orders the stream for consumers.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public record UserEvent(
+    long offset,
+    UserEventType type,
+    String userId,
+    String displayName,
+    String displayAvatar,
+    LocalDateTime occurredAt
+) {
+  public static UserEvent profileChanged(String userId, String displayName, String displayAvatar) {
+    return new UserEvent(0, UserEventType.PROFILE_CHANGED, userId, displayName, displayAvatar, LocalDateTime.now());
+  }
+  
+  public static UserEvent deleted(String userId) {
+    return new UserEvent(0, UserEventType.USER_DELETED, userId, null, null, LocalDateTime.now());
+  }
+}
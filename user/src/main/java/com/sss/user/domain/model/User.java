@@ -14,7 +14,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class User {
   private UserId id;
   private String username;
@@ -46,6 +46,7 @@ public class User {
   private boolean isLoggedIn;
   private boolean isVerified;          // Xác thực tài khoản
   private boolean isActive;            // Trạng thái hoạt động
+  private long version;                // Phiên bản, tăng mỗi lần lưu
 
   public void updateProfile(String fullName, String email, String phoneNumber, String address) {
     this.fullName = fullName;
@@ -0,0 +1,16 @@
+package com.sss.user.domain.repository;
+
+import com.sss.user.domain.model.User;
+
+/**
+ * Outcome of syncing a user from identity provider claims: the user as
+ * stored before the sync, {@code null} if the sync created it, and after.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public record SyncedIdentity(
+    User previous,
+    User current
+) {
+}
@@ -0,0 +1,23 @@
+package com.sss.user.domain.repository;
+
+import com.sss.user.domain.event.UserEvent;
+import java.util.List;
+
+/**
+ * Transactional outbox for user events.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public interface UserEventRepository {
+  
+  /**
+   * Appends the event in the caller's transaction and returns it with its offset.
+   */
+  UserEvent append(UserEvent event);
+  
+  /**
+   * Events with an offset greater than {@code offset}, in offset order.
+   */
+  List<UserEvent> findAfter(long offset, int limit);
+}
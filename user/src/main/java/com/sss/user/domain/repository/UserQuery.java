@@ -0,0 +1,19 @@
+package com.sss.user.domain.repository;
+
+import com.sss.user.domain.enumeration.UserType;
+
+/**
+ * Filters for {@link UserRepository#search}. Null fields do not filter.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public record UserQuery(
+    UserType userType,
+    String search
+) {
+
+  public boolean isEmpty() {
+    return userType == null && (search == null || search.isBlank());
+  }
+}
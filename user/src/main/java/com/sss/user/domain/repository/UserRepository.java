@@ -1,8 +1,12 @@
 package com.sss.user.domain.repository;
 
+import com.sss.user.domain.enumeration.UserType;
 import com.sss.user.domain.model.User;
 import com.sss.user.domain.model.UserId;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -13,9 +17,45 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface UserRepository {
   Optional<User> findById(UserId id);
+  java.util.List<User> findAllById(java.util.List<UserId> ids);
   Optional<User> findByUsername(String username);
   Optional<User> findByEmail(String email);
   User save(User user);
   void delete(UserId id);
+
+  /**
+   * Creates the user on the first sight of {@code username}, otherwise updates
+   * whichever of email, full name and type differ, atomically. A null email
+   * or full name leaves the stored value alone. Run it in a transaction for
+   * {@code previous} and {@code current} to be consistent; a first sight racing
+   * another one fails with a duplicate key error and can simply be retried.
+   */
+  SyncedIdentity syncIdentity(String username, String email, String fullName, UserType userType);
   java.util.List<User> findAll();
+
+  /**
+   * One page of the users matching the query; filtering, paging and counting
+   * all run in the database.
+   */
+  Page<User> search(UserQuery query, Pageable pageable);
+
+  /**
+   * Keyset page of the users matching the query: up to {@code limit} users
+   * right after {@code cursor} ({@code null} for the first page). Cost does
+   * not grow with the page depth.
+   */
+  UserSlice searchAfter(UserQuery query, UserSort sort, String cursor, int limit);
+
+  /**
+   * Up to {@code limit} users with words starting with the words of
+   * {@code prefix} (case and diacritics ignored), best matches first:
+   * username, then full or character name, then email.
+   */
+  List<User> typeahead(String prefix, int limit);
+
+  /**
+   * All users in id order, read lazily through a database cursor. The
+   * stream must be closed.
+   */
+  java.util.stream.Stream<User> streamAll();
 }
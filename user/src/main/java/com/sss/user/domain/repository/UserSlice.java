@@ -0,0 +1,17 @@
+package com.sss.user.domain.repository;
+
+import com.sss.user.domain.model.User;
+import java.util.List;
+
+/**
+ * A keyset page of users. {@code nextCursor} continues right after the last
+ * user and is {@code null} on the last page.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public record UserSlice(
+    List<User> users,
+    String nextCursor
+) {
+}
@@ -0,0 +1,62 @@
+package com.sss.user.domain.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Sort orders the user listing supports. Each one matches an index, so
+ * sorted pages never fall back to an in-memory sort:
+ * {@code {createdAt, _id}}, the unique {@code {username}} and
+ * {@code {userType, createdAt, _id}}.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public record UserSort(
+    Field field,
+    boolean descending
+) {
+
+  public enum Field {
+    CREATED_AT("createdAt", List.of("createdAt"), false),
+    USERNAME("username", List.of("username"), true),
+    USER_TYPE("userType", List.of("userType", "createdAt"), false);
+
+    private final String name;
+    private final List<String> properties;
+    private final boolean unique;
+
+    Field(String name, List<String> properties, boolean unique) {
+      this.name = name;
+      this.properties = properties;
+      this.unique = unique;
+    }
+
+    public static Field of(String name) {
+      for (Field field : values()) {
+        if (field.name.equals(name)) {
+          return field;
+        }
+      }
+      throw new IllegalArgumentException("Unsupported sort field: " + name
+          + " (supported: createdAt, username, userType)");
+    }
+  }
+
+  /**
+   * Properties that order the listing, with the id as the tie-breaker when
+   * the field itself is not unique.
+   */
+  public List<String> properties() {
+    List<String> properties = new ArrayList<>(field.properties);
+    if (!field.unique) {
+      properties.add("id");
+    }
+    return properties;
+  }
+
+  public Sort toSort() {
+    return Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, properties().toArray(String[]::new));
+  }
+}
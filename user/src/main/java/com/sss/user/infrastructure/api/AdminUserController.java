@@ -1,9 +1,15 @@
 package com.sss.user.infrastructure.api;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.sss.user.application.UserService;
 import com.sss.user.domain.exception.UserNotFoundException;
 import com.sss.user.domain.model.User;
 import com.sss.user.domain.model.UserId;
+import com.sss.user.domain.repository.UserQuery;
+import com.sss.user.domain.repository.UserSlice;
+import com.sss.user.domain.repository.UserSort;
 import com.sss.user.infrastructure.dto.CreateUserRequest;
 import com.sss.user.infrastructure.dto.UpdateUserRequest;
 import com.sss.user.infrastructure.dto.UserResponseDto;
@@ -15,15 +21,15 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Controller cho admin user management
@@ -38,12 +44,17 @@ import java.util.Map;
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminUserController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int STREAM_FLUSH_EVERY = 100;
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
     private final UserSyncService userSyncService;
     private final KeycloakUserService keycloakUserService;
 
     /**
-     * Lấy danh sách tất cả users với pagination
+     * Lấy danh sách users, sắp xếp và phân trang trong MongoDB.
+     * Có tham số cursor (kể cả rỗng) thì dùng keyset pagination cho các trang sâu, bỏ qua page/total.
      */
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllUsers(
@@ -51,45 +62,36 @@ public class AdminUserController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor) {
         
         try {
-            log.info("🔍 Admin getting all users - page: {}, size: {}, search: {}", page, size, search);
-            
-            // Tạo pageable object
-            Sort sort = sortDir.equalsIgnoreCase("desc") ? 
-                Sort.by(sortBy).descending() : 
-                Sort.by(sortBy).ascending();
-            Pageable pageable = PageRequest.of(page, size, sort);
-            
-            // Get users (hiện tại chưa có pagination trong UserService, sẽ implement)
-            List<User> users = userService.getAllUsers();
-            
-            // Convert to DTOs
-            List<UserResponseDto> userDtos = users.stream()
-                .map(UserResponseDto::fromUser)
-                .toList();
+            log.info("🔍 Admin getting all users - page: {}, size: {}, sortBy: {}, search: {}", page, size, sortBy, search);
             
-            // Filter by search if provided
-            if (search != null && !search.trim().isEmpty()) {
-                userDtos = userDtos.stream()
-                    .filter(user -> 
-                        user.getUsername().toLowerCase().contains(search.toLowerCase()) ||
-                        user.getFullName().toLowerCase().contains(search.toLowerCase()) ||
-                        (user.getEmail() != null && user.getEmail().toLowerCase().contains(search.toLowerCase()))
-                    )
-                    .toList();
-            }
+            UserSort sort = new UserSort(UserSort.Field.of(sortBy), sortDir.equalsIgnoreCase("desc"));
+            UserQuery query = new UserQuery(null, search);
             
             Map<String, Object> response = new HashMap<>();
+            if (cursor != null) {
+                UserSlice slice = userService.searchUsersAfter(query, sort, cursor, size);
+                response.put("data", slice.users().stream().map(UserResponseDto::fromUser).toList());
+                response.put("nextCursor", slice.nextCursor());
+            } else {
+                Page<User> users = userService.searchUsers(query, PageRequest.of(page, size, sort.toSort()));
+                response.put("data", users.getContent().stream().map(UserResponseDto::fromUser).toList());
+                response.put("total", users.getTotalElements());
+                response.put("page", page);
+            }
             response.put("success", true);
-            response.put("data", userDtos);
-            response.put("total", userDtos.size());
-            response.put("page", page);
             response.put("size", size);
             response.put("message", "Users retrieved successfully");
             
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             log.error("❌ Error getting users: {}", e.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
@@ -99,6 +101,33 @@ public class AdminUserController {
         }
     }
 
+    /**
+     * Xuất toàn bộ users dạng NDJSON (mỗi dòng một user), đọc qua cursor nên không giữ cả danh sách trong heap
+     */
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        log.info("🔍 Admin streaming all users");
+
+        StreamingResponseBody body = output -> {
+            // Keep the response stream open between values
+            ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            int written = 0;
+            try (Stream<User> users = userService.streamAllUsers()) {
+                Iterator<User> iterator = users.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeValue(output, UserResponseDto.fromUser(iterator.next()));
+                    output.write('\n');
+                    if (++written % STREAM_FLUSH_EVERY == 0) {
+                        output.flush();
+                    }
+                }
+            }
+            output.flush();
+            log.debug("Streamed {} users", written);
+        };
+        return ResponseEntity.ok(body);
+    }
+
     /**
      * Tạo user mới trong cả MongoDB và Keycloak
      */
@@ -5,8 +5,15 @@ import com.sss.user.domain.model.User;
 import com.sss.user.infrastructure.dto.LoginRequest;
 import com.sss.user.infrastructure.dto.LoginResponse;
 import com.sss.user.infrastructure.dto.LogoutRequest;
-import com.sss.user.infrastructure.service.SessionService;
+import com.sss.user.infrastructure.security.LocalTokenService;
+import com.sss.user.infrastructure.sync.CurrentUserResolver;
+import com.sss.user.infrastructure.sync.KeycloakTokenClient;
+import com.sss.user.infrastructure.sync.KeycloakUnavailableException;
 import com.sss.user.infrastructure.sync.UserSyncService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -14,7 +21,14 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Hybrid AuthController supporting both direct login and Keycloak
@@ -22,18 +36,44 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * @author : Ducpm56
  * @date : 07/08/2025
  **/
+@Slf4j
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
   private final UserService userService;
-  private final SessionService sessionService;
   private final UserSyncService userSyncService;
+  private final CurrentUserResolver currentUserResolver;
+  private final LocalTokenService localTokenService;
+  private final KeycloakTokenClient keycloakTokenClient;
+  // Runs the blocking user sync after a Keycloak login, off the HTTP client's threads;
+  // bounded, so a slow database turns logins away instead of queueing them without limit
+  private final ExecutorService loginSyncExecutor;
 
-  public AuthController(UserService userService, SessionService sessionService, UserSyncService userSyncService) {
+  public AuthController(UserService userService, UserSyncService userSyncService,
+                        CurrentUserResolver currentUserResolver, LocalTokenService localTokenService,
+                        KeycloakTokenClient keycloakTokenClient,
+                        @Value("${app.auth.login-sync.threads:8}") int loginSyncThreads,
+                        @Value("${app.auth.login-sync.queue-capacity:200}") int loginSyncQueueCapacity) {
     this.userService = userService;
-    this.sessionService = sessionService;
     this.userSyncService = userSyncService;
+    this.currentUserResolver = currentUserResolver;
+    this.localTokenService = localTokenService;
+    this.keycloakTokenClient = keycloakTokenClient;
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.loginSyncExecutor = new ThreadPoolExecutor(loginSyncThreads, loginSyncThreads, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(loginSyncQueueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable, "login-sync-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  @PreDestroy
+  public void stop() {
+    loginSyncExecutor.shutdown();
   }
 
   /**
@@ -47,8 +87,8 @@ public class AuthController {
       // First try direct login
       User user = userService.login(request.username(), request.password());
       
-      // Generate hybrid token that works with both systems
-      String hybridToken = generateHybridToken(user);
+      // Signed JWT accepted by both services next to Keycloak tokens
+      String hybridToken = localTokenService.issue(user);
       
       // Sync user with Keycloak if needed
       try {
@@ -63,6 +103,7 @@ public class AuthController {
       successResponse.put("message", "Login successful");
       successResponse.put("accessToken", hybridToken);
       successResponse.put("tokenType", "hybrid");
+      successResponse.put("expiresIn", localTokenService.expiration().toSeconds());
       successResponse.put("user", user);
       successResponse.put("keycloakEnabled", true);
       
@@ -91,14 +132,14 @@ public class AuthController {
       // Use UserService login method
       User user = userService.login(request.username(), request.password());
       
-      // Generate simple token (for demo purposes)
-      String token = "direct-login-token-" + user.getId().value() + "-" + System.currentTimeMillis();
+      String token = localTokenService.issue(user);
       
       Map<String, Object> successResponse = new HashMap<>();
       successResponse.put("success", true);
       successResponse.put("message", "Login successful");
       successResponse.put("accessToken", token);
       successResponse.put("tokenType", "direct");
+      successResponse.put("expiresIn", localTokenService.expiration().toSeconds());
       successResponse.put("user", user);
       successResponse.put("keycloakEnabled", false);
       
@@ -115,27 +156,6 @@ public class AuthController {
     }
   }
 
-  /**
-   * Generate hybrid token that works with both direct auth and Keycloak
-   */
-  private String generateHybridToken(User user) {
-    // Create a token that includes both user info and Keycloak compatibility
-    String baseToken = "hybrid-token-" + user.getId().value() + "-" + System.currentTimeMillis();
-    
-    // Add user info to token (in real implementation, this would be JWT)
-    Map<String, Object> tokenData = new HashMap<>();
-    tokenData.put("sub", user.getId().value());
-    tokenData.put("preferred_username", user.getUsername());
-    tokenData.put("email", user.getEmail());
-    tokenData.put("given_name", user.getFullName());
-    tokenData.put("realm_access", Map.of("roles", user.getUserType().toString()));
-    
-    // Store token data in session service for later retrieval
-    // sessionService.storeTokenData(baseToken, tokenData); // Commented out - method doesn't exist
-    
-    return baseToken;
-  }
-
   /**
    * Test endpoint for direct login
    */
@@ -166,110 +186,52 @@ public class AuthController {
    * Login endpoint - BE calls Keycloak with username/password
    */
   @PostMapping("/login")
-  public ResponseEntity<Map<String, Object>> login(@RequestBody LoginRequest request) {
-    try {
-      System.out.println("🔐 Login attempt for user: " + request.username());
-      
-      // Call Keycloak to authenticate user
-      String keycloakToken = authenticateWithKeycloak(request.username(), request.password());
-      
-      if (keycloakToken != null) {
-        // Parse token to get user info
-        Map<String, Object> userInfo = parseKeycloakToken(keycloakToken);
-        
-        // Sync user with local database using token data
-        User user = userSyncService.syncUserFromTokenData(userInfo);
-        
-        Map<String, Object> successResponse = new HashMap<>();
-        successResponse.put("success", true);
-        successResponse.put("message", "Login successful");
-        successResponse.put("accessToken", keycloakToken);
-        successResponse.put("tokenType", "keycloak");
-        successResponse.put("user", user);
-        
-        return ResponseEntity.ok(successResponse);
-      } else {
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("success", false);
-        errorResponse.put("message", "Invalid credentials");
-        return ResponseEntity.status(401).body(errorResponse);
-      }
-    } catch (Exception e) {
-      System.err.println("❌ Error in login: " + e.getMessage());
-      e.printStackTrace();
-      
-      Map<String, Object> errorResponse = new HashMap<>();
-      errorResponse.put("success", false);
-      errorResponse.put("message", "Login failed: " + e.getMessage());
-      return ResponseEntity.status(401).body(errorResponse);
-    }
-  }
-
-  /**
-   * Authenticate with Keycloak using username/password
-   */
-  private String authenticateWithKeycloak(String username, String password) {
-    try {
-      // Keycloak token endpoint
-      String keycloakUrl = "http://localhost:8080/realms/sss-realm/protocol/openid-connect/token";
-      
-      // Prepare form data for Keycloak
-      String formData = String.format(
-        "grant_type=password&client_id=sss-frontend&username=%s&password=%s",
-        username, password
-      );
-      
-      // Make HTTP request to Keycloak
-      java.net.http.HttpClient client = java.net.http.HttpClient.newHttpClient();
-      java.net.http.HttpRequest request = java.net.http.HttpRequest.newBuilder()
-        .uri(java.net.URI.create(keycloakUrl))
-        .header("Content-Type", "application/x-www-form-urlencoded")
-        .POST(java.net.http.HttpRequest.BodyPublishers.ofString(formData))
-        .build();
-      
-      java.net.http.HttpResponse<String> response = client.send(request, 
-        java.net.http.HttpResponse.BodyHandlers.ofString());
-      
-      if (response.statusCode() == 200) {
-        // Parse response to get access token
-        ObjectMapper mapper = new ObjectMapper();
-        Map<String, Object> tokenResponse = mapper.readValue(response.body(), Map.class);
-        return (String) tokenResponse.get("access_token");
-      } else {
-        System.err.println("❌ Keycloak authentication failed: " + response.statusCode());
-        return null;
-      }
-    } catch (Exception e) {
-      System.err.println("❌ Error calling Keycloak: " + e.getMessage());
-      return null;
-    }
-  }
-
-  /**
-   * Parse Keycloak token to extract user information
-   */
-  private Map<String, Object> parseKeycloakToken(String token) {
-    try {
-      // Decode JWT token (without verification for now)
-      String[] parts = token.split("\\.");
-      if (parts.length == 3) {
-        String payload = parts[1];
-        // Add padding if needed
-        while (payload.length() % 4 != 0) {
-          payload += "=";
-        }
-        
-        // Decode base64
-        String decodedPayload = new String(java.util.Base64.getUrlDecoder().decode(payload));
-        
-        // Parse JSON
-        ObjectMapper mapper = new ObjectMapper();
-        return mapper.readValue(decodedPayload, Map.class);
-      }
-    } catch (Exception e) {
-      System.err.println("❌ Error parsing token: " + e.getMessage());
-    }
-    return new HashMap<>();
+  public CompletableFuture<ResponseEntity<Map<String, Object>>> login(@RequestBody LoginRequest request) {
+    log.info("🔐 Login attempt for user: {}", request.username());
+    
+    // Call Keycloak to authenticate user; the request thread is released while waiting
+    return keycloakTokenClient.passwordGrant(request.username(), request.password())
+        .thenApplyAsync(keycloakToken -> {
+          if (keycloakToken.isEmpty()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Invalid credentials");
+            return ResponseEntity.status(401).body(errorResponse);
+          }
+          
+          // Parse token to get user info
+          Map<String, Object> userInfo = keycloakTokenClient.claims(keycloakToken.get());
+          
+          // Sync user with local database using token data
+          User user = userSyncService.syncUserFromTokenData(userInfo);
+          
+          Map<String, Object> successResponse = new HashMap<>();
+          successResponse.put("success", true);
+          successResponse.put("message", "Login successful");
+          successResponse.put("accessToken", keycloakToken.get());
+          successResponse.put("tokenType", "keycloak");
+          successResponse.put("user", user);
+          return ResponseEntity.ok(successResponse);
+        }, loginSyncExecutor)
+        .exceptionally(e -> {
+          Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+          log.error("❌ Error in login: {}", cause.getMessage(), cause);
+          
+          // Credentials were not the problem, so not a 401: Keycloak or this service is
+          HttpStatus status;
+          if (cause instanceof KeycloakUnavailableException unavailable) {
+            status = unavailable.status();
+          } else if (cause instanceof RejectedExecutionException) {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+          } else {
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+          }
+          
+          Map<String, Object> errorResponse = new HashMap<>();
+          errorResponse.put("success", false);
+          errorResponse.put("message", "Login failed: " + cause.getMessage());
+          return ResponseEntity.status(status).body(errorResponse);
+        });
   }
 
   /**
@@ -296,8 +258,8 @@ public class AuthController {
       Jwt jwt = (Jwt) authentication.getPrincipal();
       System.out.println("🔍 JWT Claims: " + jwt.getClaims());
       
-      // Use UserSyncService for comprehensive sync
-      User user = userSyncService.syncUserFromKeycloak(jwt);
+      // Synced from Keycloak only when the token's claims changed
+      User user = currentUserResolver.resolve(jwt);
       System.out.println("✅ User synced successfully: " + user.getUsername());
 
       Map<String, Object> apiResponse = new HashMap<>();
@@ -1,13 +1,17 @@
 package com.sss.user.infrastructure.api;
 
 import com.sss.user.application.UserService;
+import com.sss.user.domain.enumeration.UserType;
 import com.sss.user.domain.model.User;
 import com.sss.user.domain.model.UserId;
+import com.sss.user.domain.repository.UserQuery;
 import com.sss.user.infrastructure.dto.UpdateUserRequest;
 
-import com.sss.user.infrastructure.sync.UserSyncService;
+import com.sss.user.infrastructure.sync.CurrentUserResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -29,7 +33,7 @@ import java.util.Optional;
 public class UserController {
 
   private final UserService userService;
-  private final UserSyncService userSyncService;
+  private final CurrentUserResolver currentUserResolver;
 
   @GetMapping
   public ResponseEntity<Map<String, Object>> getUsers(
@@ -40,51 +44,21 @@ public class UserController {
     try {
       log.info("🔍 Getting users with page={}, size={}, userType={}, search={}", page, size, userType, search);
       
-      // Get all users from service
-      List<User> allUsers = userService.getAllUsers();
-      
-      // Apply filters
-      List<User> filteredUsers = allUsers.stream()
-          .filter(user -> {
-            // Filter by userType if specified
-            if (userType != null && !userType.isEmpty()) {
-              if (!user.getUserType().toString().equalsIgnoreCase(userType)) {
-                return false;
-              }
-            }
-            
-            // Filter by search term if specified
-            if (search != null && !search.isEmpty()) {
-              String searchLower = search.toLowerCase();
-              return user.getUsername().toLowerCase().contains(searchLower) ||
-                     (user.getFullName() != null && user.getFullName().toLowerCase().contains(searchLower)) ||
-                     (user.getEmail() != null && user.getEmail().toLowerCase().contains(searchLower));
-            }
-            
-            return true;
-          })
-          .collect(java.util.stream.Collectors.toList());
-      
-      // Apply pagination
-      int totalUsers = filteredUsers.size();
-      int totalPages = (int) Math.ceil((double) totalUsers / size);
-      int startIndex = page * size;
-      int endIndex = Math.min(startIndex + size, totalUsers);
-      
-      List<User> paginatedUsers = filteredUsers.subList(startIndex, endIndex);
+      UserType type = userType != null && !userType.isEmpty() ? UserType.valueOf(userType.toUpperCase()) : null;
+      Page<User> usersPage = userService.searchUsers(new UserQuery(type, search), PageRequest.of(page, size));
       
       // Convert to response format
-      List<Map<String, Object>> userDataList = paginatedUsers.stream()
+      List<Map<String, Object>> userDataList = usersPage.getContent().stream()
           .map(this::convertUserToMap)
           .collect(java.util.stream.Collectors.toList());
       
       Map<String, Object> paginationInfo = new HashMap<>();
       paginationInfo.put("page", page);
       paginationInfo.put("size", size);
-      paginationInfo.put("totalElements", totalUsers);
-      paginationInfo.put("totalPages", totalPages);
-      paginationInfo.put("hasNext", page < totalPages - 1);
-      paginationInfo.put("hasPrevious", page > 0);
+      paginationInfo.put("totalElements", usersPage.getTotalElements());
+      paginationInfo.put("totalPages", usersPage.getTotalPages());
+      paginationInfo.put("hasNext", usersPage.hasNext());
+      paginationInfo.put("hasPrevious", usersPage.hasPrevious());
       
       Map<String, Object> apiResponse = new HashMap<>();
       apiResponse.put("success", true);
@@ -93,6 +67,11 @@ public class UserController {
       apiResponse.put("message", "Users retrieved successfully");
       
       return ResponseEntity.ok(apiResponse);
+    } catch (IllegalArgumentException e) {
+      Map<String, Object> errorResponse = new HashMap<>();
+      errorResponse.put("success", false);
+      errorResponse.put("message", "Invalid request: " + e.getMessage());
+      return ResponseEntity.badRequest().body(errorResponse);
     } catch (Exception e) {
       log.error("❌ Error getting users: {}", e.getMessage());
       Map<String, Object> errorResponse = new HashMap<>();
@@ -102,6 +81,21 @@ public class UserController {
     }
   }
 
+  @GetMapping("/search")
+  public ResponseEntity<Map<String, Object>> searchUsers(
+      @RequestParam String q,
+      @RequestParam(defaultValue = "10") int limit) {
+    List<Map<String, Object>> userDataList = userService.typeahead(q, Math.min(Math.max(limit, 1), 50)).stream()
+        .map(this::convertUserToMap)
+        .toList();
+
+    Map<String, Object> apiResponse = new HashMap<>();
+    apiResponse.put("success", true);
+    apiResponse.put("data", userDataList);
+    apiResponse.put("message", "Users retrieved successfully");
+    return ResponseEntity.ok(apiResponse);
+  }
+
   @GetMapping("/me")
   public ResponseEntity<Map<String, Object>> getCurrentUser(Authentication authentication) {
     try {
@@ -117,8 +111,8 @@ public class UserController {
       String username = jwt.getClaimAsString("preferred_username");
       log.info("🔍 Getting current user profile for: {}", username);
       
-      // Sync user from Keycloak and get from MongoDB
-      User user = userSyncService.syncUserFromKeycloak(jwt);
+      // Synced from Keycloak only when the token's claims changed
+      User user = currentUserResolver.resolve(jwt);
       
       Map<String, Object> userData = convertUserToMap(user);
       
@@ -182,7 +176,7 @@ public class UserController {
       }
 
       Jwt jwt = (Jwt) authentication.getPrincipal();
-      User currentUser = userSyncService.syncUserFromKeycloak(jwt);
+      User currentUser = currentUserResolver.resolve(jwt);
       
       // Check permissions: user can only update their own profile, unless they're admin
       UserId targetUserId = new UserId(id);
@@ -0,0 +1,47 @@
+package com.sss.user.infrastructure.api;
+
+import com.sss.user.domain.event.UserEvent;
+import com.sss.user.domain.repository.UserEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Internal feed of the user outbox, read by other services by offset.
+ * Consumers keep their own offset and can replay from any earlier one.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@RestController
+@RequestMapping("/api/internal/user-events")
+@RequiredArgsConstructor
+@Slf4j
+public class UserEventController {
+
+  private static final int MAX_LIMIT = 1000;
+
+  private final UserEventRepository userEventRepository;
+
+  @GetMapping
+  public ResponseEntity<Map<String, Object>> getEvents(
+      @RequestParam(defaultValue = "0") long after,
+      @RequestParam(defaultValue = "500") int limit) {
+    List<UserEvent> events = userEventRepository.findAfter(after, Math.min(Math.max(limit, 1), MAX_LIMIT));
+    log.debug("Serving {} user events after offset {}", events.size(), after);
+
+    Map<String, Object> response = new HashMap<>();
+    response.put("success", true);
+    response.put("data", events);
+    response.put("nextOffset", events.isEmpty() ? after : events.get(events.size() - 1).offset());
+    return ResponseEntity.ok(response);
+  }
+}
@@ -0,0 +1,265 @@
+package com.sss.user.infrastructure.cache;
+
+import com.mongodb.CursorType;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.Sorts;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cross-node cache invalidation over a capped collection.
+ * <p>
+ * {@link #publish} applies the invalidation locally right away and appends it
+ * to the capped collection; every node tails that collection with a
+ * tailable-await cursor and applies messages from the other nodes as they
+ * are inserted. Messages are tiny ({@code entity}, {@code id},
+ * {@code version}, origin), and the capped size bounds the collection
+ * without any cleanup job.
+ * <p>
+ * The bus writes outside any surrounding transaction (capped collections
+ * cannot be written in one). A message that lands before its transaction
+ * commits is harmless: the version it carries stops the old copy from being
+ * cached again.
+ * <p>
+ * After a reconnect the tail resumes after the last message it handled. If
+ * the capped collection has already overwritten that message, some
+ * invalidations are lost: the resync listeners drop their local caches and
+ * the messages still in the collection are applied.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+
+  private final MongoDatabase database;
+  private final String collectionName;
+  private final long cappedSizeBytes;
+  private final Duration retryBackoff;
+  private final String nodeId = UUID.randomUUID().toString();
+  private final Map<String, List<Consumer<InvalidationMessage>>> listeners = new ConcurrentHashMap<>();
+  private final List<Runnable> resyncListeners = new CopyOnWriteArrayList<>();
+
+  private MongoCollection<Document> collection;
+  private volatile boolean running;
+  private volatile MongoCursor<Document> cursor;
+  private Thread thread;
+
+  public CacheInvalidationBus(
+      MongoDatabaseFactory mongoDatabaseFactory,
+      @Value("${app.cache-bus.collection:cache_invalidations}") String collectionName,
+      @Value("${app.cache-bus.capped-size:8388608}") long cappedSizeBytes,
+      @Value("${app.cache-bus.retry-backoff:1s}") Duration retryBackoff) {
+    // Straight from the factory so writes never join a surrounding transaction
+    this.database = mongoDatabaseFactory.getMongoDatabase();
+    this.collectionName = collectionName;
+    this.cappedSizeBytes = cappedSizeBytes;
+    this.retryBackoff = retryBackoff;
+  }
+
+  @PostConstruct
+  public void start() {
+    collection = ensureCollection();
+    running = true;
+    thread = new Thread(this::tail, "cache-invalidation-bus");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @PreDestroy
+  public void stop() {
+    running = false;
+    thread.interrupt();
+    MongoCursor<Document> current = cursor;
+    if (current != null) {
+      current.close();
+    }
+  }
+
+  public void subscribe(String entity, Consumer<InvalidationMessage> listener) {
+    listeners.computeIfAbsent(entity, key -> new CopyOnWriteArrayList<>()).add(listener);
+  }
+
+  /**
+   * Registers a callback run when invalidations may have been missed.
+   */
+  public void onResync(Runnable listener) {
+    resyncListeners.add(listener);
+  }
+
+  public void publish(String entity, String id, long version) {
+    publishAll(entity, List.of(id), version);
+  }
+
+  /**
+   * Publishes the same invalidation for many ids in one write.
+   */
+  public void publishAll(String entity, List<String> ids, long version) {
+    if (ids.isEmpty()) {
+      return;
+    }
+
+    List<Document> documents = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      deliver(new InvalidationMessage(entity, id, version));
+      documents.add(new Document("entity", entity)
+          .append("id", id)
+          .append("version", version)
+          .append("origin", nodeId));
+    }
+    try {
+      collection.insertMany(documents);
+    } catch (MongoException e) {
+      // Other nodes fall back to their cache TTL for these entries
+      log.warn("Failed to publish {} invalidations for {}: {}", ids.size(), entity, e.getMessage());
+    }
+  }
+
+  private void tail() {
+    // Start after whatever is already in the collection; older messages predate this node's cache
+    ObjectId lastSeen = newestId();
+    List<Document> skipped = new ArrayList<>();
+
+    while (running) {
+      try (MongoCursor<Document> current = collection.find()
+          .cursorType(CursorType.TailableAwait)
+          .maxAwaitTime(1, TimeUnit.SECONDS)
+          .noCursorTimeout(true)
+          .iterator()) {
+        cursor = current;
+        // Natural order is insertion order; ObjectIds from different nodes are not,
+        // so skip up to the last message seen rather than filtering on _id
+        boolean caughtUp = lastSeen == null;
+        skipped.clear();
+        while (running) {
+          Document document = current.tryNext();
+          if (document == null) {
+            if (!caughtUp) {
+              // The last seen message was overwritten by the capped collection, so every
+              // message skipped is newer than it, and the ones in between are gone
+              log.warn("Cache invalidation tail lost its position, clearing local caches");
+              resync();
+              for (Document missed : skipped) {
+                lastSeen = apply(missed);
+              }
+              skipped.clear();
+              caughtUp = true;
+            }
+            continue;
+          }
+          if (!caughtUp) {
+            if (document.getObjectId("_id").equals(lastSeen)) {
+              caughtUp = true;
+              skipped.clear();
+            } else {
+              skipped.add(document);
+            }
+            continue;
+          }
+          lastSeen = apply(document);
+        }
+      } catch (MongoException e) {
+        if (!running) {
+          return;
+        }
+        log.warn("Cache invalidation tail failed, retrying in {}: {}", retryBackoff, e.getMessage());
+        try {
+          Thread.sleep(retryBackoff.toMillis());
+        } catch (InterruptedException ie) {
+          return;
+        }
+      } finally {
+        cursor = null;
+      }
+    }
+  }
+
+  private ObjectId apply(Document document) {
+    if (!nodeId.equals(document.getString("origin"))) {
+      deliver(toMessage(document));
+    }
+    return document.getObjectId("_id");
+  }
+
+  private void resync() {
+    for (Runnable listener : resyncListeners) {
+      try {
+        listener.run();
+      } catch (Exception e) {
+        log.error("Cache resync listener failed: {}", e.getMessage());
+      }
+    }
+  }
+
+  private void deliver(InvalidationMessage message) {
+    List<Consumer<InvalidationMessage>> entityListeners = listeners.get(message.entity());
+    if (entityListeners == null) {
+      return;
+    }
+    for (Consumer<InvalidationMessage> listener : entityListeners) {
+      try {
+        listener.accept(message);
+      } catch (Exception e) {
+        log.error("Invalidation listener failed for {} {}: {}", message.entity(), message.id(), e.getMessage());
+      }
+    }
+  }
+
+  private InvalidationMessage toMessage(Document document) {
+    Number version = document.get("version", Number.class);
+    return new InvalidationMessage(
+        document.getString("entity"),
+        document.getString("id"),
+        version != null ? version.longValue() : InvalidationMessage.DELETED);
+  }
+
+  private MongoCollection<Document> ensureCollection() {
+    boolean exists = database.listCollectionNames().into(new ArrayList<>()).contains(collectionName);
+    if (!exists) {
+      try {
+        database.createCollection(collectionName,
+            new CreateCollectionOptions().capped(true).sizeInBytes(cappedSizeBytes));
+        log.info("Created capped collection {} ({} bytes)", collectionName, cappedSizeBytes);
+      } catch (MongoException e) {
+        // Another node created it first
+        log.debug("Capped collection {} already exists: {}", collectionName, e.getMessage());
+      }
+    }
+
+    MongoCollection<Document> created = database.getCollection(collectionName);
+    if (created.estimatedDocumentCount() == 0) {
+      // A tailable cursor on an empty capped collection dies immediately
+      created.insertOne(new Document("entity", "bus").append("origin", nodeId));
+    }
+    return created;
+  }
+
+  private ObjectId newestId() {
+    Document newest = database.getCollection(collectionName)
+        .find()
+        .sort(Sorts.descending("$natural"))
+        .limit(1)
+        .first();
+    return newest != null ? newest.getObjectId("_id") : null;
+  }
+}
@@ -0,0 +1,22 @@
+package com.sss.user.infrastructure.cache;
+
+/**
+ * Tells every node that {@code entity} {@code id} changed and now has
+ * {@code version}. Cached copies older than that version must go.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public record InvalidationMessage(
+    String entity,
+    String id,
+    long version
+) {
+
+  public static final String USER = "user";
+
+  /**
+   * Version for a removed entity; no cached copy survives it.
+   */
+  public static final long DELETED = Long.MAX_VALUE;
+}
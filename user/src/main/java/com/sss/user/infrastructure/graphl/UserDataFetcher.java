@@ -10,7 +10,7 @@ import com.sss.user.domain.model.UserId;
 import com.sss.user.infrastructure.dto.UpdateUserRequest;
 import com.sss.user.infrastructure.graphl.dto.UserDto;
 import com.sss.user.infrastructure.graphl.dto.UpdateUserInput;
-import com.sss.user.infrastructure.sync.UserSyncService;
+import com.sss.user.infrastructure.sync.CurrentUserResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
@@ -18,7 +18,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @DgsComponent
@@ -27,7 +29,7 @@ import java.util.stream.Collectors;
 public class UserDataFetcher {
 
     private final UserService userService;
-    private final UserSyncService userSyncService;
+    private final CurrentUserResolver currentUserResolver;
 
     @DgsQuery
     public UserDto user(@InputArgument String id) {
@@ -43,6 +45,18 @@ public class UserDataFetcher {
                 .collect(Collectors.toList());
     }
 
+    @DgsQuery
+    public List<UserDto> usersByIds(@InputArgument List<String> ids) {
+        Map<String, User> usersById = userService.getUsersByIds(ids.stream().map(UserId::new).toList()).stream()
+                .collect(Collectors.toMap(user -> user.getId().value(), Function.identity(), (first, second) -> first));
+
+        // Keep the caller's order and return null for ids that do not exist
+        return ids.stream()
+                .map(usersById::get)
+                .map(user -> user != null ? mapToUserDto(user) : null)
+                .toList();
+    }
+
     @DgsQuery
     public UserDto currentUser() {
         try {
@@ -93,7 +107,7 @@ public class UserDataFetcher {
         }
 
         Jwt jwt = (Jwt) authentication.getPrincipal();
-        return userSyncService.syncUserFromKeycloak(jwt);
+        return currentUserResolver.resolve(jwt);
     }
 
     private UserDto mapToUserDto(User user) {
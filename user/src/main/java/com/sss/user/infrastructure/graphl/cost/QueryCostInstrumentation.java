@@ -0,0 +1,183 @@
+package com.sss.user.infrastructure.graphl.cost;
+
+import graphql.ExecutionResult;
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.analysis.QueryComplexityCalculator;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLTypeUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Rejects GraphQL operations that would cost too much before any data is
+ * fetched.
+ * <p>
+ * The cost of a field is its weight plus its children's cost, times the
+ * list size it asks for: the {@code limit}/{@code first} argument, or
+ * {@code app.graphql.cost.default-list-size} for lists that do not take one.
+ * A paged field that returns a connection object rather than a list applies
+ * its size once, to the list inside the connection, not to the connection
+ * itself as well.
+ * Leaf fields weigh 0 and other fields 1, unless
+ * {@code app.graphql.cost.field-weights} says otherwise
+ * ({@code Type.field} → weight).
+ * <p>
+ * An operation fails when its cost exceeds {@code app.graphql.cost.max-cost},
+ * or when the client (JWT subject, else remote address) has spent its
+ * token-bucket budget; the error says how long to wait. Budgets are kept
+ * for the {@code app.graphql.cost.budget.max-clients} most recent clients.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@Component
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+
+  private final Map<String, Integer> fieldWeights;
+  private final int defaultListSize;
+  private final int maxCost;
+  private final long budgetCapacity;
+  private final long budgetRefillPerSecond;
+  private final Map<String, TokenBucket> budgets;
+
+  public QueryCostInstrumentation(
+      @Value("#{${app.graphql.cost.field-weights:{:}}}") Map<String, Integer> fieldWeights,
+      @Value("${app.graphql.cost.default-list-size:20}") int defaultListSize,
+      @Value("${app.graphql.cost.max-cost:5000}") int maxCost,
+      @Value("${app.graphql.cost.budget.capacity:20000}") long budgetCapacity,
+      @Value("${app.graphql.cost.budget.refill-per-second:2000}") long budgetRefillPerSecond,
+      @Value("${app.graphql.cost.budget.max-clients:10000}") int maxClients) {
+    this.fieldWeights = fieldWeights;
+    this.defaultListSize = defaultListSize;
+    this.maxCost = maxCost;
+    this.budgetCapacity = budgetCapacity;
+    this.budgetRefillPerSecond = budgetRefillPerSecond;
+    this.budgets = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+        return size() > maxClients;
+      }
+    });
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+      InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+    ExecutionContext executionContext = parameters.getExecutionContext();
+    int cost = QueryComplexityCalculator.newCalculator()
+        .fieldComplexityCalculator(fieldCost())
+        .schema(executionContext.getGraphQLSchema())
+        .document(executionContext.getDocument())
+        .operationName(executionContext.getExecutionInput().getOperationName())
+        .variables(executionContext.getCoercedVariables())
+        .build()
+        .calculate();
+
+    if (cost > maxCost) {
+      throw new AbortExecutionException("Query cost " + cost + " exceeds the maximum of " + maxCost
+          + "; request fewer items or fewer fields");
+    }
+
+    String client = clientKey();
+    long waitMillis = budgetOf(client).tryConsume(cost);
+    if (waitMillis > 0) {
+      log.warn("Client {} is over its query cost budget (cost {})", client, cost);
+      throw new AbortExecutionException("Query cost budget exhausted; retry in " + waitMillis + " ms");
+    }
+
+    return SimpleInstrumentationContext.noOp();
+  }
+
+  private FieldComplexityCalculator fieldCost() {
+    return (environment, childComplexity) -> {
+      int weight = fieldWeights.getOrDefault(
+          environment.getParentType().getName() + "." + environment.getField().getName(),
+          isLeaf(environment.getFieldDefinition()) ? 0 : 1);
+      long cost = (long) (weight + childComplexity) * listSize(environment);
+      return (int) Math.min(cost, Integer.MAX_VALUE);
+    };
+  }
+
+  private int listSize(FieldComplexityEnvironment environment) {
+    boolean list = isList(environment.getFieldDefinition());
+    Integer pageSize = pageSize(environment);
+    if (pageSize != null) {
+      // A connection object is fetched once; its page size applies to the list inside it
+      return list ? pageSize : 1;
+    }
+    if (!list) {
+      return 1;
+    }
+    FieldComplexityEnvironment parent = environment.getParentEnvironment();
+    if (parent != null && !isList(parent.getFieldDefinition())) {
+      Integer connectionSize = pageSize(parent);
+      if (connectionSize != null) {
+        return connectionSize;
+      }
+    }
+    return defaultListSize;
+  }
+
+  /**
+   * Size asked for by a paged field, or {@code null} if the field is not paged.
+   */
+  private Integer pageSize(FieldComplexityEnvironment environment) {
+    for (String argument : new String[] {"limit", "first"}) {
+      if (environment.getArguments().get(argument) instanceof Number size) {
+        return Math.max(1, size.intValue());
+      }
+      if (environment.getFieldDefinition().getArgument(argument) != null) {
+        // Paged field called without a size: the data fetcher applies its default
+        return defaultListSize;
+      }
+    }
+    return null;
+  }
+
+  private boolean isList(GraphQLFieldDefinition fieldDefinition) {
+    return GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(fieldDefinition.getType()));
+  }
+
+  private boolean isLeaf(GraphQLFieldDefinition fieldDefinition) {
+    return GraphQLTypeUtil.isLeaf(GraphQLTypeUtil.unwrapAll(fieldDefinition.getType()));
+  }
+
+  private TokenBucket budgetOf(String client) {
+    // Bounded LRU: the least recently seen client is dropped, and starts over with a full bucket
+    return budgets.computeIfAbsent(client, key -> new TokenBucket(budgetCapacity, budgetRefillPerSecond));
+  }
+
+  private String clientKey() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication != null && authentication.isAuthenticated()
+        && !"anonymousUser".equals(authentication.getName())) {
+      return "user:" + authentication.getName();
+    }
+
+    if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+      HttpServletRequest request = attributes.getRequest();
+      // With server.forward-headers-strategy=native, Tomcat's RemoteIpValve has already replaced
+      // the load balancer's address with the first X-Forwarded-For hop that is not a trusted proxy
+      return "ip:" + request.getRemoteAddr();
+    }
+    return "unknown";
+  }
+}
@@ -0,0 +1,82 @@
+package com.sss.user.infrastructure.persistence;
+
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
+import com.sss.user.domain.enumeration.UserEventType;
+import com.sss.user.domain.event.UserEvent;
+import com.sss.user.domain.repository.UserEventRepository;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Repository
+@RequiredArgsConstructor
+public class MongoUserEventRepository implements UserEventRepository {
+
+  private static final String COUNTERS_COLLECTION = "counters";
+  private static final String OFFSET_COUNTER = "user_events";
+
+  private final MongoTemplate mongoTemplate;
+  private final MongoDatabaseFactory mongoDatabaseFactory;
+
+  @Override
+  public UserEvent append(UserEvent event) {
+    UserEventDocument document = UserEventDocument.builder()
+        .offset(nextOffset())
+        .type(event.type().name())
+        .userId(event.userId())
+        .displayName(event.displayName())
+        .displayAvatar(event.displayAvatar())
+        .occurredAt(event.occurredAt())
+        .build();
+    // MongoTemplate joins the surrounding transaction, so the event commits with the user
+    return toDomain(mongoTemplate.insert(document));
+  }
+
+  @Override
+  public List<UserEvent> findAfter(long offset, int limit) {
+    Query query = Query.query(Criteria.where("offset").gt(offset))
+        .with(Sort.by("offset"))
+        .limit(limit);
+    return mongoTemplate.find(query, UserEventDocument.class).stream()
+        .map(this::toDomain)
+        .toList();
+  }
+
+  /**
+   * Reserves the next offset outside the caller's transaction. Taking the
+   * counter inside every transaction would make concurrent profile updates
+   * conflict on the counter document; the price is that an aborted
+   * transaction leaves a gap, which consumers skip after a grace period.
+   */
+  private long nextOffset() {
+    Document counter = mongoDatabaseFactory.getMongoDatabase()
+        .getCollection(COUNTERS_COLLECTION)
+        .findOneAndUpdate(
+            new Document("_id", OFFSET_COUNTER),
+            Updates.inc("seq", 1L),
+            new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+    return ((Number) counter.get("seq")).longValue();
+  }
+
+  private UserEvent toDomain(UserEventDocument document) {
+    return new UserEvent(
+        document.getOffset(),
+        UserEventType.valueOf(document.getType()),
+        document.getUserId(),
+        document.getDisplayName(),
+        document.getDisplayAvatar(),
+        document.getOccurredAt());
+  }
+}
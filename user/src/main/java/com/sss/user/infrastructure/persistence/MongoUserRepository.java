@@ -1,10 +1,45 @@
 package com.sss.user.infrastructure.persistence;
 
+import com.mongodb.client.result.UpdateResult;
+import com.sss.user.domain.enumeration.UserType;
 import com.sss.user.domain.model.User;
 import com.sss.user.domain.model.UserId;
+import com.sss.user.domain.repository.UserQuery;
 import com.sss.user.domain.repository.UserRepository;
+import com.sss.user.domain.repository.UserSlice;
+import com.sss.user.domain.repository.SyncedIdentity;
+import com.sss.user.domain.repository.UserSort;
+import com.sss.user.infrastructure.cache.CacheInvalidationBus;
+import com.sss.user.infrastructure.cache.InvalidationMessage;
+import com.sss.user.infrastructure.cache.VersionedCache;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Pattern;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReplaceOptions;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -15,12 +50,36 @@ import org.springframework.stereotype.Repository;
 @RequiredArgsConstructor
 public class MongoUserRepository implements UserRepository {
 
+  // Documents fetched per cursor round trip when streaming
+  private static final int STREAM_BATCH_SIZE = 200;
+
+  private static final int TYPEAHEAD_CANDIDATES_PER_RESULT = 5;
+  private static final int TYPEAHEAD_MAX_CANDIDATES = 200;
+  private static final Pattern REGEX_METACHARACTERS = Pattern.compile("[\\\\^$.|?*+()\\[\\]{}]");
+
   private final SpringDataUserRepository repo;
+  private final MongoTemplate mongoTemplate;
   private final UserMapper userMapper;
+  private final VersionedCache<UserDocument> userCache;
+  private final CacheInvalidationBus invalidationBus;
 
   @Override
   public Optional<User> findById(UserId id) {
-    return repo.findById(id.value()).map(userMapper::toDomain);
+    UserDocument cached = userCache.get(id.value());
+    if (cached != null) {
+      return Optional.of(userMapper.toDomain(cached));
+    }
+
+    Optional<UserDocument> document = repo.findById(id.value());
+    document.ifPresent(doc -> userCache.put(doc.getId(), doc));
+    return document.map(userMapper::toDomain);
+  }
+
+  @Override
+  public java.util.List<User> findAllById(java.util.List<UserId> ids) {
+    return repo.findAllById(ids.stream().map(UserId::value).toList()).stream()
+        .map(userMapper::toDomain)
+        .toList();
   }
 
   @Override
@@ -35,12 +94,139 @@ public class MongoUserRepository implements UserRepository {
 
   @Override
   public User save(User user) {
-    return userMapper.toDomain(repo.save(userMapper.toDocument(user)));
+    UserDocument document = userMapper.toDocument(user);
+    long expectedVersion = user.getVersion();
+    document.setVersion(expectedVersion + 1);
+    document.setSearchTokens(UserSearchTokens.of(document));
+    document.setSearchTokensVersion(UserSearchTokens.VERSION);
+
+    // Only replaces the version the caller read, so versions strictly increase and a
+    // cached copy can never be mistaken for a newer one. Version 0 is a new user (or one
+    // written before versioning), which the upsert inserts.
+    Query expected = Query.query(Criteria.where("_id").is(document.getId()).and("version").is(expectedVersion));
+    if (expectedVersion == 0) {
+      expected = Query.query(new Criteria().andOperator(
+          Criteria.where("_id").is(document.getId()),
+          new Criteria().orOperator(Criteria.where("version").is(0L), Criteria.where("version").exists(false))));
+    }
+    long matched;
+    try {
+      UpdateResult result = mongoTemplate.replace(expected, document,
+          expectedVersion == 0 ? ReplaceOptions.replaceOptions().upsert() : ReplaceOptions.none());
+      matched = result.getMatchedCount() + (result.getUpsertedId() != null ? 1 : 0);
+    } catch (DuplicateKeyException e) {
+      if (expectedVersion != 0
+          || !mongoTemplate.exists(Query.query(Criteria.where("_id").is(document.getId())), UserDocument.class)) {
+        // Another user's username or email
+        throw e;
+      }
+      // The upsert hit this user, whose version has moved on
+      matched = 0;
+    }
+    if (matched == 0) {
+      throw new OptimisticLockingFailureException(
+          "User " + document.getId() + " was modified concurrently (expected version " + expectedVersion + ")");
+    }
+
+    user.setVersion(document.getVersion());
+    invalidationBus.publish(InvalidationMessage.USER, document.getId(), document.getVersion());
+    return userMapper.toDomain(document);
+  }
+
+  @Override
+  public SyncedIdentity syncIdentity(String username, String email, String fullName, UserType userType) {
+    // Millisecond precision, as stored, so updatedAt tells whether this call wrote the claims
+    LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    UserDocument previous = upsertIdentity(username, email, fullName, userType, now);
+    UserDocument document = mongoTemplate.findOne(
+        Query.query(Criteria.where("username").is(username)), UserDocument.class);
+
+    // Tokens depend on stored fields (characterName) the upsert does not see, so compare afterwards
+    List<String> searchTokens = UserSearchTokens.of(document);
+    boolean tokensChanged = !searchTokens.equals(document.getSearchTokens())
+        || !Integer.valueOf(UserSearchTokens.VERSION).equals(document.getSearchTokensVersion());
+    if (tokensChanged) {
+      mongoTemplate.updateFirst(
+          Query.query(Criteria.where("id").is(document.getId()).and("version").is(document.getVersion())),
+          Update.update("searchTokens", searchTokens).set("searchTokensVersion", UserSearchTokens.VERSION),
+          UserDocument.class);
+      document.setSearchTokens(searchTokens);
+      document.setSearchTokensVersion(UserSearchTokens.VERSION);
+    }
+
+    if (tokensChanged || now.equals(document.getUpdatedAt())) {
+      invalidationBus.publish(InvalidationMessage.USER, document.getId(), document.getVersion());
+    }
+    return new SyncedIdentity(previous != null ? userMapper.toDomain(previous) : null, userMapper.toDomain(document));
+  }
+
+  /**
+   * One findAndModify on the username: inserts the user with its creation
+   * defaults, or updates the claims of an existing one. An update pipeline
+   * compares the stored claims first, so {@code version} and
+   * {@code updatedAt} only move when a claim actually changed and an
+   * up-to-date user is left as it is.
+   *
+   * @return the user before the update, {@code null} if it was inserted
+   */
+  private UserDocument upsertIdentity(
+      String username, String email, String fullName, UserType userType, LocalDateTime now) {
+    Date timestamp = Date.from(now.atZone(ZoneId.systemDefault()).toInstant());
+    List<Object> changed = new ArrayList<>();
+    changed.add(new Document("$ne", List.of("$userType", literal(userType.name()))));
+    if (email != null) {
+      changed.add(new Document("$ne", List.of("$email", literal(email))));
+    }
+    if (fullName != null) {
+      changed.add(new Document("$ne", List.of("$fullName", literal(fullName))));
+    }
+
+    // An upserted document has no _id until the pipeline has run
+    Document flags = new Document()
+        .append("_new", new Document("$eq", List.of(new Document("$type", "$_id"), "missing")))
+        .append("_changed", new Document("$or", changed));
+    Document values = new Document()
+        .append("_id", new Document("$ifNull", List.of("$_id", UserId.generate().value())))
+        .append("userType", literal(userType.name()))
+        .append("email", email != null ? literal(email) : new Document("$ifNull", List.of("$email", "")))
+        .append("fullName", fullName != null
+            ? literal(fullName)
+            : new Document("$ifNull", List.of("$fullName", literal(username))))
+        .append("updatedAt", when("$_changed", timestamp, "$updatedAt"))
+        .append("version", when("$_changed",
+            new Document("$add", List.of(new Document("$ifNull", List.of("$version", 0L)), 1L)),
+            "$version"))
+        .append("createdAt", when("$_new", timestamp, "$createdAt"))
+        .append("isActive", when("$_new", true, "$isActive"))
+        // Keycloak users are considered verified
+        .append("isVerified", when("$_new", true, "$isVerified"))
+        .append("isLoggedIn", when("$_new", true, "$isLoggedIn"));
+
+    AggregationUpdate update = AggregationUpdate.from(List.of(
+        stage("$set", flags),
+        stage("$set", values),
+        stage("$unset", List.of("_new", "_changed"))));
+    return mongoTemplate.findAndModify(Query.query(Criteria.where("username").is(username)), update,
+        FindAndModifyOptions.options().upsert(true).returnNew(false), UserDocument.class);
+  }
+
+  private static AggregationOperation stage(String operator, Object value) {
+    return context -> new Document(operator, value);
+  }
+
+  private static Document when(String condition, Object then, Object otherwise) {
+    return new Document("$cond", Arrays.asList(condition, then, otherwise));
+  }
+
+  // Claims are caller data; one starting with $ must not read as a field path
+  private static Document literal(Object value) {
+    return new Document("$literal", value);
   }
 
   @Override
   public void delete(UserId id) {
     repo.deleteById(id.value());
+    invalidationBus.publish(InvalidationMessage.USER, id.value(), InvalidationMessage.DELETED);
   }
 
   @Override
@@ -49,4 +235,158 @@ public class MongoUserRepository implements UserRepository {
         .map(userMapper::toDomain)
         .collect(java.util.stream.Collectors.toList());
   }
+
+  @Override
+  public java.util.stream.Stream<User> streamAll() {
+    Query query = new Query()
+        .with(Sort.by(Sort.Direction.ASC, "_id"))
+        .cursorBatchSize(STREAM_BATCH_SIZE);
+    return mongoTemplate.stream(query, UserDocument.class).map(userMapper::toDomain);
+  }
+
+  @Override
+  public Page<User> search(UserQuery userQuery, Pageable pageable) {
+    Query query = toQuery(filters(userQuery));
+
+    // Unsorted pages are not stable; fall back to the _id index
+    Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by(Sort.Direction.ASC, "_id");
+    List<User> users = mongoTemplate.find(Query.of(query).with(pageable).with(sort), UserDocument.class).stream()
+        .map(userMapper::toDomain)
+        .toList();
+
+    // Skips the count when the page itself tells the total; an unfiltered count comes from collection metadata
+    return PageableExecutionUtils.getPage(users, pageable, () -> userQuery.isEmpty()
+        ? mongoTemplate.estimatedCount(UserDocument.class)
+        : mongoTemplate.count(Query.of(query), UserDocument.class));
+  }
+
+  @Override
+  public UserSlice searchAfter(UserQuery userQuery, UserSort sort, String cursor, int limit) {
+    List<Criteria> filters = filters(userQuery);
+    if (cursor != null && !cursor.isBlank()) {
+      filters.add(UserCursor.after(sort, UserCursor.decode(cursor)));
+    }
+    Query query = toQuery(filters);
+    query.with(sort.toSort()).limit(limit + 1);
+
+    List<UserDocument> documents = mongoTemplate.find(query, UserDocument.class);
+    boolean hasMore = documents.size() > limit;
+    List<UserDocument> page = hasMore ? documents.subList(0, limit) : documents;
+
+    return new UserSlice(
+        page.stream().map(userMapper::toDomain).toList(),
+        hasMore ? encodeCursor(sort, page.get(page.size() - 1)) : null);
+  }
+
+  private List<Criteria> filters(UserQuery userQuery) {
+    List<Criteria> filters = new ArrayList<>();
+    if (userQuery.userType() != null) {
+      filters.add(Criteria.where("userType").is(userQuery.userType().name()));
+    }
+    if (userQuery.search() != null && !userQuery.search().isBlank()) {
+      filters.add(searchCriteria(userQuery.search()));
+    }
+    return filters;
+  }
+
+  /**
+   * Every word of the search must prefix a word of the user, or the whole
+   * search must be the user's email or email domain, both through the
+   * searchTokens index. A search without words or exact token ("!!!")
+   * matches no one.
+   */
+  private Criteria searchCriteria(String search) {
+    List<String> tokens = UserSearchTokens.queryTokens(search);
+    String exactToken = UserSearchTokens.exactToken(search);
+    if (tokens.isEmpty() && exactToken == null) {
+      return Criteria.where("_id").exists(false);
+    }
+    if (exactToken == null) {
+      return Criteria.where("searchTokens").all(tokens);
+    }
+    if (tokens.isEmpty()) {
+      return Criteria.where("searchTokens").is(exactToken);
+    }
+    return new Criteria().orOperator(
+        Criteria.where("searchTokens").is(exactToken),
+        Criteria.where("searchTokens").all(tokens));
+  }
+
+  /**
+   * ANDs the filters; Query#addCriteria would reject a second key-less
+   * criteria such as the $or of a cursor.
+   */
+  private Query toQuery(List<Criteria> filters) {
+    if (filters.isEmpty()) {
+      return new Query();
+    }
+    return Query.query(filters.size() == 1 ? filters.get(0) : new Criteria().andOperator(filters));
+  }
+
+  private String encodeCursor(UserSort sort, UserDocument last) {
+    Document sortValues = new Document();
+    mongoTemplate.getConverter().write(last, sortValues);
+    List<Object> values = new ArrayList<>();
+    for (String property : sort.properties()) {
+      values.add(sortValues.get("id".equals(property) ? "_id" : property));
+    }
+    return UserCursor.encode(values);
+  }
+
+  @Override
+  public List<User> typeahead(String prefix, int limit) {
+    List<String> tokens = UserSearchTokens.queryTokens(prefix);
+    if (tokens.isEmpty()) {
+      return List.of();
+    }
+
+    // Username matches rank first, so fetch them on their own from the unique username index
+    Map<String, UserDocument> candidates = new LinkedHashMap<>();
+    String usernamePrefix = UserSearchTokens.normalize(prefix).trim();
+    Query usernames = Query.query(Criteria.where("username").regex("^" + escapeRegex(usernamePrefix)))
+        .with(Sort.by("username"))
+        .limit(limit);
+    mongoTemplate.find(usernames, UserDocument.class).forEach(user -> candidates.put(user.getId(), user));
+
+    if (candidates.size() < limit) {
+      // Then a bounded set of other word matches, taken in {searchTokens, username} index
+      // order so the same prefix always ranks the same candidates
+      Query words = Query.query(Criteria.where("searchTokens").all(tokens))
+          .with(Sort.by("username"))
+          .limit(Math.min(limit * TYPEAHEAD_CANDIDATES_PER_RESULT, TYPEAHEAD_MAX_CANDIDATES));
+      mongoTemplate.find(words, UserDocument.class).forEach(user -> candidates.putIfAbsent(user.getId(), user));
+    }
+    String normalizedPrefix = String.join(" ", tokens);
+
+    return candidates.values().stream()
+        .sorted(Comparator
+            .comparingInt((UserDocument user) -> rank(user, normalizedPrefix))
+            .thenComparingInt(user -> user.getUsername() != null ? user.getUsername().length() : Integer.MAX_VALUE))
+        .limit(limit)
+        .map(userMapper::toDomain)
+        .toList();
+  }
+
+  private static String escapeRegex(String value) {
+    return REGEX_METACHARACTERS.matcher(value).replaceAll("\\\\$0");
+  }
+
+  private int rank(UserDocument user, String prefix) {
+    String username = UserSearchTokens.normalize(user.getUsername());
+    if (username.equals(prefix)) {
+      return 0;
+    }
+    if (username.startsWith(prefix)) {
+      return 1;
+    }
+    if (UserSearchTokens.normalize(user.getFullName()).startsWith(prefix)
+        || UserSearchTokens.normalize(user.getCharacterName()).startsWith(prefix)) {
+      return 2;
+    }
+    if (UserSearchTokens.normalize(UserSearchTokens.emailLocalPart(user.getEmail())).startsWith(prefix)) {
+      return 3;
+    }
+    // Matched on a later word only
+    return 4;
+  }
 }
@@ -0,0 +1,82 @@
+package com.sss.user.infrastructure.persistence;
+
+import com.sss.user.domain.repository.UserSort;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+/**
+ * Keyset cursor of the user listing: the sort values of the last user of a
+ * page, as URL-safe Base64 of extended JSON (which keeps dates and ObjectIds
+ * typed through the round trip), and the criteria that select the users
+ * after it.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+final class UserCursor {
+
+  private UserCursor() {
+  }
+
+  static String encode(List<Object> values) {
+    String json = new Document("v", values).toJson();
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static List<Object> decode(String cursor) {
+    try {
+      String json = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      List<Object> values = Document.parse(json).getList("v", Object.class);
+      if (values == null) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+      return values;
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+  }
+
+  /**
+   * Rows strictly after the cursor in sort order:
+   * (p1 > v1) or (p1 = v1 and p2 > v2) or ...
+   */
+  static Criteria after(UserSort sort, List<Object> values) {
+    List<String> properties = sort.properties();
+    if (values.size() != properties.size()) {
+      throw new IllegalArgumentException("Cursor does not match sort " + sort.field());
+    }
+
+    List<Criteria> branches = new ArrayList<>();
+    for (int i = 0; i < properties.size(); i++) {
+      Criteria beyond = beyond(properties.get(i), values.get(i), sort.descending());
+      if (beyond == null) {
+        continue;
+      }
+      List<Criteria> branch = new ArrayList<>();
+      for (int j = 0; j < i; j++) {
+        branch.add(Criteria.where(properties.get(j)).is(values.get(j)));
+      }
+      branch.add(beyond);
+      branches.add(branch.size() == 1 ? branch.get(0) : new Criteria().andOperator(branch));
+    }
+    if (branches.isEmpty()) {
+      // Nothing sorts after the cursor
+      return Criteria.where("id").exists(false);
+    }
+    return branches.size() == 1 ? branches.get(0) : new Criteria().orOperator(branches);
+  }
+
+  private static Criteria beyond(String property, Object value, boolean descending) {
+    // Nulls sort before every value
+    if (value == null) {
+      return descending ? null : Criteria.where(property).ne(null);
+    }
+    return descending
+        ? new Criteria().orOperator(Criteria.where(property).lt(value), Criteria.where(property).is(null))
+        : Criteria.where(property).gt(value);
+  }
+}
@@ -1,12 +1,15 @@
 package com.sss.user.infrastructure.persistence;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 
 /**
@@ -14,6 +17,12 @@ import org.springframework.data.mongodb.core.index.Indexed;
  * @date : 06/08/2025
  **/
 @Document("users")
+@CompoundIndexes({
+    @CompoundIndex(name = "createdAt_id", def = "{'createdAt': 1, '_id': 1}"),
+    @CompoundIndex(name = "userType_createdAt_id", def = "{'userType': 1, 'createdAt': 1, '_id': 1}"),
+    // Prefix search, with matches in username order for typeahead
+    @CompoundIndex(name = "searchTokens_username", def = "{'searchTokens': 1, 'username': 1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -59,4 +68,9 @@ public class UserDocument {
   private boolean isLoggedIn;
   private boolean isVerified;
   private boolean isActive;
+  private long version;
+
+  // Edge n-grams for prefix search, see UserSearchTokens
+  private List<String> searchTokens;
+  private Integer searchTokensVersion;
 }
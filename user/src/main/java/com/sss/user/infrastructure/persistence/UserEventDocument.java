@@ -0,0 +1,33 @@
+package com.sss.user.infrastructure.persistence;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Document("user_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserEventDocument {
+  @Id
+  private String id;
+  
+  @Indexed(unique = true)
+  private long offset;
+  
+  private String type;
+  private String userId;
+  private String displayName;
+  private String displayAvatar;
+  private LocalDateTime occurredAt;
+}
@@ -18,6 +18,8 @@ public interface UserMapper {
   // Map từ domain → document
   @Mapping(target = "id", source = "id", qualifiedByName = "mapUserIdToString")
   @Mapping(target = "userType", source = "userType", qualifiedByName = "mapUserTypeToString")
+  @Mapping(target = "searchTokens", ignore = true)
+  @Mapping(target = "searchTokensVersion", ignore = true)
   UserDocument toDocument(User user);
 
   // Map từ document → domain
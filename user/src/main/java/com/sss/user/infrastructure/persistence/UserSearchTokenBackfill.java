@@ -0,0 +1,57 @@
+package com.sss.user.infrastructure.persistence;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills {@code searchTokens} for users saved before the field existed, or
+ * with tokens of an older {@link UserSearchTokens#VERSION}, or written
+ * around the repository, in batches of bulk updates. Runs once the
+ * application is ready; later saves keep the field current.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.user-search.backfill-on-startup", havingValue = "true", matchIfMissing = true)
+public class UserSearchTokenBackfill {
+
+  private static final int BATCH_SIZE = 500;
+
+  private final MongoTemplate mongoTemplate;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfill() {
+    // Also matches users without the field at all
+    Query stale = Query.query(Criteria.where("searchTokensVersion").ne(UserSearchTokens.VERSION)).limit(BATCH_SIZE);
+    long updated = 0;
+
+    List<UserDocument> batch;
+    while (!(batch = mongoTemplate.find(stale, UserDocument.class)).isEmpty()) {
+      BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserDocument.class);
+      for (UserDocument user : batch) {
+        bulk.updateOne(
+            Query.query(Criteria.where("id").is(user.getId())),
+            Update.update("searchTokens", UserSearchTokens.of(user))
+                .set("searchTokensVersion", UserSearchTokens.VERSION));
+      }
+      updated += bulk.execute().getModifiedCount();
+    }
+
+    if (updated > 0) {
+      log.info("Backfilled search tokens for {} users", updated);
+    }
+  }
+}
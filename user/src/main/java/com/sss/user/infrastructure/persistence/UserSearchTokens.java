@@ -0,0 +1,137 @@
+package com.sss.user.infrastructure.persistence;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the {@code searchTokens} field of a user: edge n-grams of the
+ * diacritic-folded, lower-cased words of username, fullName, characterName
+ * and the email local part, plus the whole normalized email and its domain
+ * as exact tokens. A multikey index on the field turns prefix search into
+ * index lookups.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public final class UserSearchTokens {
+
+  // Longer prefixes add index entries without narrowing results any further
+  static final int MAX_TOKEN_LENGTH = 20;
+
+  // Bumped whenever of() changes, so the backfill rewrites older tokens
+  static final int VERSION = 2;
+
+  // Exact tokens carry a prefix no word token can have, words being [a-z0-9] only
+  private static final String EMAIL = "email:";
+  private static final String DOMAIN = "domain:";
+
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+  private UserSearchTokens() {
+  }
+
+  public static List<String> of(UserDocument user) {
+    Set<String> tokens = new LinkedHashSet<>();
+    addWords(tokens, user.getUsername());
+    addCompact(tokens, user.getUsername());
+    addWords(tokens, user.getFullName());
+    addWords(tokens, user.getCharacterName());
+    String emailLocalPart = emailLocalPart(user.getEmail());
+    addWords(tokens, emailLocalPart);
+    addCompact(tokens, emailLocalPart);
+    String email = normalize(user.getEmail()).trim();
+    if (!email.isEmpty()) {
+      tokens.add(EMAIL + email);
+      int at = email.lastIndexOf('@');
+      if (at >= 0 && at < email.length() - 1) {
+        tokens.add(DOMAIN + email.substring(at + 1));
+      }
+    }
+    return new ArrayList<>(tokens);
+  }
+
+  /**
+   * The exact token a query may match as a whole: a full email
+   * ("bob@example.com"), or a domain ("example.com", "@example.com").
+   * Null when the query looks like neither.
+   */
+  public static String exactToken(String query) {
+    String value = normalize(query).trim();
+    if (value.isEmpty() || value.chars().anyMatch(Character::isWhitespace)) {
+      return null;
+    }
+    int at = value.lastIndexOf('@');
+    if (at > 0 && at < value.length() - 1) {
+      return EMAIL + value;
+    }
+    String domain = at == 0 ? value.substring(1) : value;
+    return domain.indexOf('.') > 0 && domain.indexOf('@') < 0 ? DOMAIN + domain : null;
+  }
+
+  /**
+   * Tokens a query must all match: its normalized words, capped at the
+   * indexed length.
+   */
+  public static List<String> queryTokens(String query) {
+    List<String> tokens = new ArrayList<>();
+    for (String word : words(query)) {
+      tokens.add(word.length() > MAX_TOKEN_LENGTH ? word.substring(0, MAX_TOKEN_LENGTH) : word);
+    }
+    return tokens;
+  }
+
+  /**
+   * Lower case without diacritics, e.g. "Đức Phạm" → "duc pham".
+   */
+  public static String normalize(String value) {
+    if (value == null) {
+      return "";
+    }
+    String folded = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+    // đ is a letter of its own, not d plus a mark, so NFD leaves it alone
+    return folded.replace('đ', 'd').replace('Đ', 'D').toLowerCase(Locale.ROOT);
+  }
+
+  static String emailLocalPart(String email) {
+    if (email == null) {
+      return null;
+    }
+    int at = email.indexOf('@');
+    return at >= 0 ? email.substring(0, at) : email;
+  }
+
+  private static void addWords(Set<String> tokens, String value) {
+    for (String word : words(value)) {
+      addPrefixes(tokens, word);
+    }
+  }
+
+  // "john_doe" also yields "johnd...", so typing without the separator still matches
+  private static void addCompact(Set<String> tokens, String value) {
+    String compact = SEPARATORS.matcher(normalize(value)).replaceAll("");
+    addPrefixes(tokens, compact);
+  }
+
+  private static void addPrefixes(Set<String> tokens, String word) {
+    int max = Math.min(word.length(), MAX_TOKEN_LENGTH);
+    for (int length = 1; length <= max; length++) {
+      tokens.add(word.substring(0, length));
+    }
+  }
+
+  private static List<String> words(String value) {
+    List<String> words = new ArrayList<>();
+    for (String word : SEPARATORS.split(normalize(value))) {
+      if (!word.isEmpty()) {
+        words.add(word);
+      }
+    }
+    return words;
+  }
+}
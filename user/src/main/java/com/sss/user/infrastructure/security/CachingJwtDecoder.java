@@ -0,0 +1,88 @@
+package com.sss.user.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Remembers verified tokens until they expire, so a client sending the same
+ * token on every request pays the signature check once. Entries are keyed
+ * by the SHA-256 of the token rather than the token itself, which keeps
+ * keys small and bearer tokens out of the heap. Failures are not cached.
+ * When full, the cache evicts the tokens least likely to be used again, one
+ * at a time, instead of forgetting every token at once.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public class CachingJwtDecoder implements JwtDecoder {
+
+  private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  });
+
+  private final JwtDecoder delegate;
+  private final Cache<String, Jwt> verified;
+
+  public CachingJwtDecoder(JwtDecoder delegate, int maxSize) {
+    this.delegate = delegate;
+    this.verified = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfter(new UntilTokenExpiry())
+        .build();
+  }
+
+  @Override
+  public Jwt decode(String token) throws JwtException {
+    String key = hash(token);
+    Jwt cached = verified.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    Jwt jwt = delegate.decode(token);
+    // Tokens without an expiry would stay forever; verify those every time
+    if (jwt.getExpiresAt() != null) {
+      verified.put(key, jwt);
+    }
+    return jwt;
+  }
+
+  private String hash(String token) {
+    return HexFormat.of().formatHex(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+  }
+
+  /**
+   * Keeps each token until its own {@code exp}; reads do not extend it.
+   */
+  private static class UntilTokenExpiry implements Expiry<String, Jwt> {
+
+    @Override
+    public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+      return Math.max(0, Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, jwt, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.sss.user.infrastructure.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.util.Base64URL;
+import java.text.ParseException;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Accepts both our own HS256 tokens (direct and hybrid login) and Keycloak's
+ * RS256 tokens, choosing the decoder by the algorithm in the token header.
+ * Only the header is parsed to decide.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public class DispatchingJwtDecoder implements JwtDecoder {
+
+  private final JwtDecoder localDecoder;
+  private final JwtDecoder keycloakDecoder;
+
+  public DispatchingJwtDecoder(JwtDecoder localDecoder, JwtDecoder keycloakDecoder) {
+    this.localDecoder = localDecoder;
+    this.keycloakDecoder = keycloakDecoder;
+  }
+
+  @Override
+  public Jwt decode(String token) throws JwtException {
+    return isLocal(token) ? localDecoder.decode(token) : keycloakDecoder.decode(token);
+  }
+
+  private boolean isLocal(String token) {
+    int dot = token.indexOf('.');
+    if (dot <= 0) {
+      throw new BadJwtException("Malformed token");
+    }
+    try {
+      return JWSAlgorithm.HS256.equals(JWSHeader.parse(new Base64URL(token.substring(0, dot))).getAlgorithm());
+    } catch (ParseException e) {
+      throw new BadJwtException("Malformed token header", e);
+    }
+  }
+}
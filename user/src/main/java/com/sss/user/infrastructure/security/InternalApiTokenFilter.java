@@ -0,0 +1,65 @@
+package com.sss.user.infrastructure.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Authenticates calls to {@code /api/internal/**} made by other services
+ * with the shared token in the {@value #HEADER} header. A matching token
+ * grants {@code ROLE_INTERNAL_SERVICE}; anything else leaves the request
+ * unauthenticated and the security chain rejects it.
+ * <p>
+ * Not a {@code @Component}: Spring Boot would otherwise also register it as
+ * a plain servlet filter outside the security chain.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public class InternalApiTokenFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "X-Internal-Token";
+  public static final String ROLE = "INTERNAL_SERVICE";
+
+  private static final String PATH_PREFIX = "/api/internal/";
+  private static final int MIN_TOKEN_BYTES = 32;
+
+  private final byte[] token;
+
+  public InternalApiTokenFilter(String token) {
+    if (token == null || token.isBlank()) {
+      throw new IllegalStateException("app.internal-api.token must be set");
+    }
+    this.token = token.getBytes(StandardCharsets.UTF_8);
+    if (this.token.length < MIN_TOKEN_BYTES) {
+      throw new IllegalStateException("app.internal-api.token must be at least " + MIN_TOKEN_BYTES + " bytes");
+    }
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !request.getRequestURI().startsWith(request.getContextPath() + PATH_PREFIX);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    String presented = request.getHeader(HEADER);
+    // Constant-time comparison, so the token cannot be guessed byte by byte
+    if (presented != null && MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8))) {
+      UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+          "internal-service", null, List.of(new SimpleGrantedAuthority("ROLE_" + ROLE)));
+      SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+    chain.doFilter(request, response);
+  }
+}
@@ -0,0 +1,106 @@
+package com.sss.user.infrastructure.security;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.sss.user.domain.model.User;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Issues and verifies the HS256 tokens of direct and hybrid login, signed
+ * with {@code app.jwt.secret}. The claims mirror Keycloak's
+ * ({@code sub}, {@code preferred_username}, {@code realm_access.roles}), so
+ * the rest of the code treats both kinds of token alike. Startup fails
+ * when the secret is missing, shorter than the 256 bits HS256 needs, or
+ * the placeholder the configuration once shipped with.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Component
+public class LocalTokenService {
+
+  static final int MIN_SECRET_BYTES = 32;
+  private static final String PLACEHOLDER_SECRET = "your-secret-key-here-make-it-long-and-secure";
+
+  private final JwtEncoder encoder;
+  private final JwtDecoder decoder;
+  private final String issuer;
+  private final Duration expiration;
+
+  public LocalTokenService(
+      @Value("${app.jwt.secret}") String secret,
+      @Value("${app.jwt.expiration:86400000}") long expirationMillis,
+      @Value("${app.jwt.issuer:sss-user-service}") String issuer) {
+    SecretKey key = new SecretKeySpec(requireSecret(secret), "HmacSHA256");
+    this.encoder = new NimbusJwtEncoder(new ImmutableSecret<>(key));
+
+    NimbusJwtDecoder nimbusDecoder = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+    nimbusDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+    this.decoder = nimbusDecoder;
+
+    this.issuer = issuer;
+    this.expiration = Duration.ofMillis(expirationMillis);
+  }
+
+  static byte[] requireSecret(String secret) {
+    if (secret == null || secret.isBlank()) {
+      throw new IllegalStateException("app.jwt.secret is not set; provide it through APP_JWT_SECRET");
+    }
+    if (PLACEHOLDER_SECRET.equals(secret)) {
+      throw new IllegalStateException("app.jwt.secret is the sample placeholder; provide a real secret");
+    }
+    byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length < MIN_SECRET_BYTES) {
+      throw new IllegalStateException(
+          "app.jwt.secret must be at least " + MIN_SECRET_BYTES + " bytes, got " + bytes.length);
+    }
+    return bytes;
+  }
+
+  public String issue(User user) {
+    Instant now = Instant.now();
+    JwtClaimsSet.Builder claims = JwtClaimsSet.builder()
+        .issuer(issuer)
+        .subject(user.getId().value())
+        .issuedAt(now)
+        .expiresAt(now.plus(expiration))
+        .claim("preferred_username", user.getUsername())
+        .claim("realm_access", Map.of("roles", List.of(user.getUserType().name())));
+    // Claims cannot be null; leaving them out makes the user sync keep the stored values
+    if (user.getEmail() != null) {
+      claims.claim("email", user.getEmail());
+    }
+    if (user.getFullName() != null) {
+      claims.claim("name", user.getFullName());
+    }
+    JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+    return encoder.encode(JwtEncoderParameters.from(header, claims.build())).getTokenValue();
+  }
+
+  public Duration expiration() {
+    return expiration;
+  }
+
+  /**
+   * Verifies signature, issuer and expiry of a token issued here.
+   */
+  public JwtDecoder decoder() {
+    return decoder;
+  }
+}
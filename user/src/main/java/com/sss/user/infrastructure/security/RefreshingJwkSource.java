@@ -0,0 +1,94 @@
+package com.sss.user.infrastructure.security;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import java.io.IOException;
+import java.net.URL;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keycloak's signing keys, fetched in the background.
+ * <p>
+ * The key set is reloaded every {@code refreshInterval} off the request
+ * path. When Keycloak cannot be reached the last key set that loaded keeps
+ * being served, so tokens signed with known keys still verify. A token
+ * signed with a key the set does not contain (key rotation) triggers one
+ * immediate reload, at most once per {@code minRefreshGap}.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+public class RefreshingJwkSource implements JWKSource<SecurityContext>, AutoCloseable {
+
+  private static final int SIZE_LIMIT_BYTES = 256 * 1024;
+
+  private final URL jwkSetUrl;
+  private final int timeoutMillis;
+  private final long minRefreshGapMillis;
+  private final ScheduledExecutorService refresher;
+  private final AtomicLong lastAttempt = new AtomicLong();
+
+  private volatile JWKSet jwkSet = new JWKSet();
+
+  public RefreshingJwkSource(URL jwkSetUrl, Duration refreshInterval, Duration minRefreshGap, Duration timeout) {
+    this.jwkSetUrl = jwkSetUrl;
+    this.timeoutMillis = (int) timeout.toMillis();
+    this.minRefreshGapMillis = minRefreshGap.toMillis();
+
+    this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "jwks-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // First load right away, in the background too: startup does not wait for Keycloak
+    refresher.scheduleWithFixedDelay(this::refresh, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public List<JWK> get(JWKSelector selector, SecurityContext context) throws KeySourceException {
+    List<JWK> keys = selector.select(jwkSet);
+    if (!keys.isEmpty()) {
+      return keys;
+    }
+
+    long now = System.currentTimeMillis();
+    long previous = lastAttempt.get();
+    if (now - previous >= minRefreshGapMillis && lastAttempt.compareAndSet(previous, now)) {
+      refresh();
+      keys = selector.select(jwkSet);
+    }
+    return keys;
+  }
+
+  @Override
+  public void close() {
+    refresher.shutdownNow();
+  }
+
+  private void refresh() {
+    lastAttempt.set(System.currentTimeMillis());
+    try {
+      JWKSet loaded = JWKSet.load(jwkSetUrl, timeoutMillis, timeoutMillis, SIZE_LIMIT_BYTES);
+      if (loaded.isEmpty()) {
+        log.warn("JWK set at {} is empty, keeping the previous {} keys", jwkSetUrl, jwkSet.size());
+        return;
+      }
+      jwkSet = loaded;
+    } catch (IOException | ParseException e) {
+      log.warn("Failed to refresh JWK set from {}, keeping the previous {} keys: {}",
+          jwkSetUrl, jwkSet.size(), e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.sss.user.infrastructure.security;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps {@code realm_access.roles} to {@code ROLE_*} authorities.
+ * <p>
+ * Only a handful of role combinations exist, so each one is built once and
+ * every token with it shares the same immutable set. Lookups go by the
+ * role list exactly as the token carries it first, which allocates nothing
+ * on a hit; only a list not seen before is sorted into its canonical key.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@Component
+public class RoleAuthoritiesMapper implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+  // Beyond this many distinct lists the roles are attacker-controlled or misconfigured; stop interning
+  private static final int MAX_INTERNED = 1024;
+
+  private final Map<List<String>, Set<GrantedAuthority>> byRoles = new ConcurrentHashMap<>();
+  private final Map<String, Set<GrantedAuthority>> byCanonicalKey = new ConcurrentHashMap<>();
+  private final AtomicLong conversions = new AtomicLong();
+  private final long logEvery;
+
+  public RoleAuthoritiesMapper(@Value("${app.security.authorities-log-every:1000}") long logEvery) {
+    this.logEvery = Math.max(logEvery, 1);
+  }
+
+  @Override
+  public Collection<GrantedAuthority> convert(Jwt jwt) {
+    List<String> roles = roles(jwt);
+    Set<GrantedAuthority> authorities = byRoles.get(roles);
+    if (authorities == null) {
+      authorities = intern(roles);
+    }
+
+    if (log.isDebugEnabled() && conversions.getAndIncrement() % logEvery == 0) {
+      log.debug("Authorities for {}: {} (sampled 1 in {})", jwt.getSubject(), authorities, logEvery);
+    }
+    return authorities;
+  }
+
+  private Set<GrantedAuthority> intern(List<String> roles) {
+    String canonicalKey = String.join(",", new TreeSet<>(roles));
+    Set<GrantedAuthority> authorities = byCanonicalKey.get(canonicalKey);
+    if (authorities == null) {
+      authorities = toAuthorities(roles);
+      if (byCanonicalKey.size() < MAX_INTERNED) {
+        Set<GrantedAuthority> previous = byCanonicalKey.putIfAbsent(canonicalKey, authorities);
+        authorities = previous != null ? previous : authorities;
+      }
+    }
+    if (byRoles.size() < MAX_INTERNED) {
+      byRoles.putIfAbsent(List.copyOf(roles), authorities);
+    }
+    return authorities;
+  }
+
+  private Set<GrantedAuthority> toAuthorities(List<String> roles) {
+    return roles.stream()
+        // Add role as-is if it already has ROLE_ prefix, otherwise add prefix
+        .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
+        .map(SimpleGrantedAuthority::new)
+        .collect(Collectors.toUnmodifiableSet());
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<String> roles(Jwt jwt) {
+    if (jwt.getClaim("realm_access") instanceof Map<?, ?> realmAccess
+        && realmAccess.get("roles") instanceof List<?> roles
+        && !roles.contains(null)) {
+      return (List<String>) roles;
+    }
+    return List.of();
+  }
+}
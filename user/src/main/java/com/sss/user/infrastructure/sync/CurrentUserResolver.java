@@ -0,0 +1,163 @@
+package com.sss.user.infrastructure.sync;
+
+import com.sss.user.domain.model.User;
+import com.sss.user.infrastructure.cache.CacheInvalidationBus;
+import com.sss.user.infrastructure.cache.InvalidationMessage;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Resolves the authenticated {@link User} behind a JWT without syncing on
+ * every request.
+ * <p>
+ * Entries are keyed by subject and remember the claims the user was synced
+ * from (username, email, name, roles). While a token presents the same
+ * claims the cached user is returned with no database access; a change in
+ * any of them runs {@link UserSyncService#syncUserFromKeycloak} once. An
+ * entry never outlives the token it was resolved from, and any save of the
+ * user, on this node or another, evicts it through the
+ * {@link CacheInvalidationBus}. Within one HTTP request the result is also
+ * memoized, so several callers share a single lookup.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@Component
+public class CurrentUserResolver {
+
+  private static final String REQUEST_ATTRIBUTE = CurrentUserResolver.class.getName() + ".user";
+
+  private final UserSyncService userSyncService;
+  private final long ttlMillis;
+  private final int maxSize;
+  private final Map<String, Resolution> resolutions = new ConcurrentHashMap<>();
+  // Lets an invalidation find its entry without scanning every resolution
+  private final Map<String, String> subjectsByUserId = new ConcurrentHashMap<>();
+
+  public CurrentUserResolver(
+      UserSyncService userSyncService,
+      CacheInvalidationBus invalidationBus,
+      @Value("${app.auth.user-cache.ttl:5m}") Duration ttl,
+      @Value("${app.auth.user-cache.max-size:10000}") int maxSize) {
+    this.userSyncService = userSyncService;
+    this.ttlMillis = ttl.toMillis();
+    this.maxSize = maxSize;
+
+    invalidationBus.subscribe(InvalidationMessage.USER, message -> evict(message.id(), message.version()));
+    invalidationBus.onResync(this::clear);
+  }
+
+  public User resolve(Jwt jwt) {
+    RequestAttributes request = RequestContextHolder.getRequestAttributes();
+    if (request != null
+        && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Memo memo
+        && memo.token().equals(jwt.getTokenValue())) {
+      return copy(memo.user());
+    }
+
+    User user = lookup(jwt);
+    if (request != null) {
+      request.setAttribute(REQUEST_ATTRIBUTE, new Memo(jwt.getTokenValue(), user), RequestAttributes.SCOPE_REQUEST);
+    }
+    return copy(user);
+  }
+
+  private User lookup(Jwt jwt) {
+    String subject = jwt.getSubject() != null ? jwt.getSubject() : jwt.getClaimAsString("preferred_username");
+    List<Object> claims = syncedClaims(jwt);
+    long now = System.currentTimeMillis();
+
+    Resolution cached = resolutions.get(subject);
+    if (cached != null && cached.expiresAt() > now && cached.claims().equals(claims)) {
+      return cached.user();
+    }
+
+    User user = userSyncService.syncUserFromKeycloak(jwt);
+    evictIfFull(now);
+    resolutions.put(subject, new Resolution(claims, user, expiresAt(jwt, now)));
+    subjectsByUserId.put(user.getId().value(), subject);
+    return user;
+  }
+
+  /**
+   * The claims {@link UserSyncService} copies into the user; anything else
+   * in the token can change without a sync.
+   */
+  private List<Object> syncedClaims(Jwt jwt) {
+    List<Object> claims = new ArrayList<>(4);
+    claims.add(jwt.getClaimAsString("preferred_username"));
+    claims.add(jwt.getClaimAsString("email"));
+    claims.add(jwt.getClaimAsString("name"));
+    claims.add(roles(jwt));
+    return claims;
+  }
+
+  private Object roles(Jwt jwt) {
+    Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
+    if (realmAccess != null && realmAccess.get("roles") != null) {
+      return realmAccess.get("roles");
+    }
+    Map<String, Object> resourceAccess = jwt.getClaimAsMap("resource_access");
+    return resourceAccess != null ? resourceAccess.get("sss-backend") : null;
+  }
+
+  private long expiresAt(Jwt jwt, long now) {
+    long expiresAt = now + ttlMillis;
+    Instant tokenExpiry = jwt.getExpiresAt();
+    return tokenExpiry != null ? Math.min(expiresAt, tokenExpiry.toEpochMilli()) : expiresAt;
+  }
+
+  private void evict(String userId, long version) {
+    String subject = subjectsByUserId.get(userId);
+    if (subject == null) {
+      return;
+    }
+    // A save publishes the version it wrote; the copy resolved from that save survives it.
+    // The index entry stays: a concurrent lookup may already have re-resolved the subject,
+    // and trimming drops entries left without a resolution.
+    resolutions.computeIfPresent(subject, (key, resolution) ->
+        Objects.equals(resolution.user().getId().value(), userId) && resolution.user().getVersion() < version
+            ? null
+            : resolution);
+  }
+
+  private void evictIfFull(long now) {
+    if (resolutions.size() < maxSize) {
+      return;
+    }
+    resolutions.values().removeIf(resolution -> resolution.expiresAt() <= now);
+    if (resolutions.size() >= maxSize) {
+      clear();
+      return;
+    }
+    subjectsByUserId.values().removeIf(subject -> !resolutions.containsKey(subject));
+  }
+
+  private void clear() {
+    resolutions.clear();
+    subjectsByUserId.clear();
+  }
+
+  // Callers get their own copy, so mutating it cannot corrupt the cache
+  private User copy(User user) {
+    return user.toBuilder().build();
+  }
+
+  private record Resolution(List<Object> claims, User user, long expiresAt) {
+  }
+
+  private record Memo(String token, User user) {
+  }
+}
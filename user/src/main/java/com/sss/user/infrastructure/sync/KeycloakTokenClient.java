@@ -0,0 +1,194 @@
+package com.sss.user.infrastructure.sync;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Password-grant calls to the Keycloak token endpoint.
+ * <p>
+ * One HTTP/2 client is shared by every login, so connections are reused,
+ * and calls complete asynchronously instead of holding a request thread.
+ * Latency is recorded in the {@code keycloak.token.requests} timer (p50,
+ * p95, p99), tagged by outcome.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+@Slf4j
+@Component
+public class KeycloakTokenClient {
+
+  private static final String TIMER = "keycloak.token.requests";
+  /** OAuth error code for wrong credentials; every other error is ours or Keycloak's. */
+  private static final String INVALID_GRANT = "invalid_grant";
+
+  private final HttpClient httpClient;
+  private final ObjectReader tokenReader;
+  private final ObjectReader claimsReader;
+  private final MeterRegistry meterRegistry;
+  private final URI tokenUri;
+  private final String clientId;
+  private final Duration requestTimeout;
+
+  public KeycloakTokenClient(
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${app.keycloak.token-url:${keycloak.auth-server-url:http://localhost:8080}/realms/${keycloak.realm:sss-realm}/protocol/openid-connect/token}") URI tokenUri,
+      @Value("${app.keycloak.client-id:sss-frontend}") String clientId,
+      @Value("${app.keycloak.connect-timeout:2s}") Duration connectTimeout,
+      @Value("${app.keycloak.request-timeout:5s}") Duration requestTimeout) {
+    this.httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .connectTimeout(connectTimeout)
+        .build();
+    this.tokenReader = objectMapper.readerFor(TokenResponse.class);
+    this.claimsReader = objectMapper.readerForMapOf(Object.class);
+    this.meterRegistry = meterRegistry;
+    this.tokenUri = tokenUri;
+    this.clientId = clientId;
+    this.requestTimeout = requestTimeout;
+
+    // Register up front so the percentiles exist before the first login
+    timer("success");
+  }
+
+  /**
+   * Access token for the credentials, or empty when Keycloak rejects them
+   * ({@code invalid_grant}).
+   * Completes exceptionally with a {@link KeycloakUnavailableException} when
+   * Keycloak cannot be reached or answers with anything else.
+   */
+  public CompletableFuture<Optional<String>> passwordGrant(String username, String password) {
+    HttpRequest request = HttpRequest.newBuilder(tokenUri)
+        .timeout(requestTimeout)
+        .header("Content-Type", "application/x-www-form-urlencoded")
+        .POST(HttpRequest.BodyPublishers.ofString(form(Map.of(
+            "grant_type", "password",
+            "client_id", clientId,
+            "username", Objects.requireNonNullElse(username, ""),
+            "password", Objects.requireNonNullElse(password, "")))))
+        .build();
+
+    Timer.Sample sample = Timer.start(meterRegistry);
+    return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+        .handle((response, error) -> {
+          if (error != null) {
+            sample.stop(timer("error"));
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+            throw new KeycloakUnavailableException(
+                "Keycloak token endpoint unreachable: " + cause.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, cause);
+          }
+          Optional<String> token;
+          try {
+            token = accessToken(response);
+          } catch (KeycloakUnavailableException e) {
+            sample.stop(timer("error"));
+            throw e;
+          }
+          sample.stop(timer(token.isPresent() ? "success" : "rejected"));
+          return token;
+        });
+  }
+
+  /**
+   * Claims of a token Keycloak just issued to us, read without verifying the
+   * signature.
+   */
+  public Map<String, Object> claims(String accessToken) {
+    String[] parts = accessToken.split("\\.");
+    if (parts.length != 3) {
+      throw new IllegalArgumentException("Malformed access token");
+    }
+    try {
+      return claimsReader.readValue(Base64.getUrlDecoder().decode(parts[1]));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Only {@code invalid_grant} (wrong credentials, or a disabled account)
+   * means the user was rejected. Any other error, e.g. {@code invalid_client}
+   * or {@code unauthorized_client}, is a misconfigured client that no user
+   * can fix, so it surfaces as a bad gateway.
+   */
+  private Optional<String> accessToken(HttpResponse<byte[]> response) {
+    int status = response.statusCode();
+    if (status == 503 || status == 504) {
+      throw new KeycloakUnavailableException(
+          "Keycloak token endpoint answered " + status, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    if (status != 200 && status != 400 && status != 401) {
+      throw new KeycloakUnavailableException("Keycloak token endpoint answered " + status, HttpStatus.BAD_GATEWAY);
+    }
+    TokenResponse token;
+    try {
+      token = tokenReader.readValue(response.body());
+    } catch (IOException e) {
+      throw new KeycloakUnavailableException(
+          "Unreadable Keycloak token response: " + e.getMessage(), HttpStatus.BAD_GATEWAY, e);
+    }
+    if (status == 200) {
+      if (token.accessToken() == null) {
+        throw new KeycloakUnavailableException("Keycloak token response has no access token", HttpStatus.BAD_GATEWAY);
+      }
+      return Optional.of(token.accessToken());
+    }
+    if (INVALID_GRANT.equals(token.error())) {
+      log.warn("Keycloak rejected the password grant: {}", token.error());
+      return Optional.empty();
+    }
+    throw new KeycloakUnavailableException(
+        "Keycloak token endpoint answered " + status + " " + token.error(), HttpStatus.BAD_GATEWAY);
+  }
+
+  private Timer timer(String outcome) {
+    return Timer.builder(TIMER)
+        .description("Keycloak token endpoint latency")
+        .tag("outcome", outcome)
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(meterRegistry);
+  }
+
+  private static String form(Map<String, String> fields) {
+    StringBuilder body = new StringBuilder();
+    fields.forEach((name, value) -> {
+      if (!body.isEmpty()) {
+        body.append('&');
+      }
+      body.append(URLEncoder.encode(name, StandardCharsets.UTF_8))
+          .append('=')
+          .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+    });
+    return body.toString();
+  }
+
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  record TokenResponse(@JsonProperty("access_token") String accessToken, @JsonProperty("error") String error) {
+  }
+}
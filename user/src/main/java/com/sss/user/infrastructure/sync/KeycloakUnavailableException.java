@@ -0,0 +1,31 @@
+package com.sss.user.infrastructure.sync;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Keycloak could not answer a request: unreachable or timed out
+ * ({@link HttpStatus#SERVICE_UNAVAILABLE}), or answered with an error of its
+ * own ({@link HttpStatus#BAD_GATEWAY}). Unlike rejected credentials, the
+ * caller may retry.
+ *
+ * @author : Ducpm56
+ * @date : 19/10/2026
+ **/
+public class KeycloakUnavailableException extends RuntimeException {
+
+  private final HttpStatus status;
+
+  public KeycloakUnavailableException(String message, HttpStatus status) {
+    super(message);
+    this.status = status;
+  }
+
+  public KeycloakUnavailableException(String message, HttpStatus status, Throwable cause) {
+    super(message, cause);
+    this.status = status;
+  }
+
+  public HttpStatus status() {
+    return status;
+  }
+}
@@ -2,14 +2,12 @@ package com.sss.user.infrastructure.sync;
 
 import com.sss.user.application.UserService;
 import com.sss.user.domain.enumeration.UserType;
-import com.sss.user.domain.exception.UserNotFoundException;
 import com.sss.user.domain.model.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -37,8 +35,6 @@ public class UserSyncService {
         String username = (String) tokenData.get("preferred_username");
         String email = (String) tokenData.get("email");
         String fullName = (String) tokenData.get("name");
-        String firstName = (String) tokenData.get("given_name");
-        String lastName = (String) tokenData.get("family_name");
         
         // Extract roles from token data
         List<String> roles = extractRolesFromTokenData(tokenData);
@@ -46,20 +42,8 @@ public class UserSyncService {
         
         log.info("🔍 Syncing user: {} with roles: {}", username, roles);
         
-        try {
-            // Try to find existing user
-            User existingUser = userService.findByUsername(username);
-            log.info("✅ Found existing user: {}", username);
-            
-            // Update user info from Keycloak if changed
-            return updateUserFromKeycloak(existingUser, email, fullName, userType);
-            
-        } catch (UserNotFoundException e) {
-            log.info("🔄 User not found, creating new user from Keycloak: {}", username);
-            
-            // Create new user
-            return createUserFromKeycloak(username, email, fullName, userType);
-        }
+        // Tạo mới hoặc cập nhật trong một lần upsert
+        return userService.syncFromKeycloak(username, email, fullName, userType);
     }
 
     /**
@@ -72,8 +56,6 @@ public class UserSyncService {
         String username = jwt.getClaimAsString("preferred_username");
         String email = jwt.getClaimAsString("email");
         String fullName = jwt.getClaimAsString("name");
-        String firstName = jwt.getClaimAsString("given_name");
-        String lastName = jwt.getClaimAsString("family_name");
         
         // Extract roles from JWT
         List<String> roles = extractRolesFromJwt(jwt);
@@ -81,70 +63,8 @@ public class UserSyncService {
         
         log.info("🔍 Syncing user: {} with roles: {}", username, roles);
         
-        try {
-            // Try to find existing user
-            User existingUser = userService.findByUsername(username);
-            log.info("✅ Found existing user: {}", username);
-            
-            // Update user info from Keycloak if changed
-            return updateUserFromKeycloak(existingUser, email, fullName, userType);
-            
-        } catch (UserNotFoundException e) {
-            log.info("🔄 User not found, creating new user from Keycloak: {}", username);
-            
-            // Create new user
-            return createUserFromKeycloak(username, email, fullName, userType);
-        }
-    }
-
-    /**
-     * Tạo user mới từ Keycloak data
-     */
-    private User createUserFromKeycloak(String username, String email, String fullName, UserType userType) {
-        User newUser = userService.createUserFromKeycloak(username, email, fullName);
-        
-        // Set user type based on Keycloak roles
-        newUser.setUserType(userType);
-        newUser.setUpdatedAt(LocalDateTime.now());
-        
-        log.info("✅ Created new user: {} with type: {}", username, userType);
-        return userService.updateUserProfile(newUser.getId(), 
-            createUpdateRequestFromUser(newUser));
-    }
-
-    /**
-     * Cập nhật user hiện có từ Keycloak data
-     */
-    private User updateUserFromKeycloak(User existingUser, String email, String fullName, UserType userType) {
-        boolean needsUpdate = false;
-        
-        // Check if basic info changed
-        if (email != null && !email.equals(existingUser.getEmail())) {
-            existingUser.setEmail(email);
-            needsUpdate = true;
-        }
-        
-        if (fullName != null && !fullName.equals(existingUser.getFullName())) {
-            existingUser.setFullName(fullName);
-            needsUpdate = true;
-        }
-        
-        // Update user type if role changed
-        if (userType != existingUser.getUserType()) {
-            existingUser.setUserType(userType);
-            needsUpdate = true;
-            log.info("🔄 User type changed from {} to {} for user: {}", 
-                existingUser.getUserType(), userType, existingUser.getUsername());
-        }
-        
-        if (needsUpdate) {
-            existingUser.setUpdatedAt(LocalDateTime.now());
-            log.info("🔄 Updating user: {} with new info from Keycloak", existingUser.getUsername());
-            return userService.updateUserProfile(existingUser.getId(), 
-                createUpdateRequestFromUser(existingUser));
-        }
-        
-        return existingUser;
+        // Tạo mới hoặc cập nhật trong một lần upsert
+        return userService.syncFromKeycloak(username, email, fullName, userType);
     }
 
     /**
@@ -289,23 +209,4 @@ public class UserSyncService {
         }
         return "";
     }
-
-    private com.sss.user.infrastructure.dto.UpdateUserRequest createUpdateRequestFromUser(User user) {
-        return new com.sss.user.infrastructure.dto.UpdateUserRequest(
-            user.getFullName(),
-            user.getEmail(),
-            user.getPhoneNumber(),
-            user.getAddress(),
-            user.getBio(),
-            user.getProfilePictureUrl(),
-            user.getDateOfBirth(),
-            user.getGender(),
-            user.getLocation(),
-            user.getCharacterName(),
-            user.getAnimeMangaSource(),
-            user.getCharacterDescription(),
-            user.getAvatarUrl(),
-            user.getCoverImageUrl()
-        );
-    }
 }
@@ -3,7 +3,10 @@ package com.sss.user;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+    "app.jwt.secret=test-jwt-secret-of-at-least-32-bytes",
+    "app.internal-api.token=test-internal-token-of-at-least-32-bytes"
+})
 class UserApplicationTests {
 
   @Test
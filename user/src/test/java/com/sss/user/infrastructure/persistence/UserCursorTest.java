@@ -0,0 +1,108 @@
+package com.sss.user.infrastructure.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sss.user.domain.repository.UserSort;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+class UserCursorTest {
+
+  private static final Date CREATED_AT = new Date(1_760_000_000_000L);
+
+  @Test
+  void roundTripKeepsValueTypes() {
+    ObjectId objectId = new ObjectId();
+    List<Object> values = Arrays.asList(CREATED_AT, "user-1", objectId, null);
+
+    String cursor = UserCursor.encode(values);
+
+    assertThat(cursor).doesNotContain("+", "/", "=");
+    assertThat(UserCursor.decode(cursor)).containsExactly(CREATED_AT, "user-1", objectId, null);
+  }
+
+  @Test
+  void decodeRejectsMalformedCursors() {
+    String notJson = Base64.getUrlEncoder().encodeToString("not json".getBytes(StandardCharsets.UTF_8));
+    String noValues = Base64.getUrlEncoder().encodeToString("{\"x\": 1}".getBytes(StandardCharsets.UTF_8));
+
+    assertThatThrownBy(() -> UserCursor.decode("%%%")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> UserCursor.decode(notJson)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> UserCursor.decode(noValues)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void afterAscendingAddsOneBranchPerSortProperty() {
+    Criteria after = UserCursor.after(new UserSort(UserSort.Field.CREATED_AT, false), List.of(CREATED_AT, "user-1"));
+
+    assertThat(json(after)).isEqualTo(new Document("$or", List.of(
+        new Document("createdAt", new Document("$gt", CREATED_AT)),
+        new Document("$and", List.of(
+            new Document("createdAt", CREATED_AT),
+            new Document("id", new Document("$gt", "user-1"))))))
+        .toJson());
+  }
+
+  @Test
+  void afterUniqueSortIsASingleCondition() {
+    Criteria after = UserCursor.after(new UserSort(UserSort.Field.USERNAME, false), List.of("bob"));
+
+    assertThat(json(after)).isEqualTo(new Document("username", new Document("$gt", "bob")).toJson());
+  }
+
+  @Test
+  void afterDescendingIncludesNullsAfterValues() {
+    Criteria after = UserCursor.after(new UserSort(UserSort.Field.USERNAME, true), List.of("bob"));
+
+    assertThat(json(after)).isEqualTo(new Document("$or", List.of(
+        new Document("username", new Document("$lt", "bob")),
+        new Document("username", null)))
+        .toJson());
+  }
+
+  @Test
+  void afterNullValueAscendingMatchesEveryValue() {
+    Criteria after = UserCursor.after(new UserSort(UserSort.Field.USERNAME, false), Arrays.asList((Object) null));
+
+    assertThat(json(after)).isEqualTo(new Document("username", new Document("$ne", null)).toJson());
+  }
+
+  @Test
+  void afterNullValueDescendingSkipsToTheTieBreaker() {
+    Criteria after = UserCursor.after(new UserSort(UserSort.Field.CREATED_AT, true), Arrays.asList(null, "user-1"));
+
+    assertThat(json(after)).isEqualTo(new Document("$and", List.of(
+        new Document("createdAt", null),
+        new Document("$or", List.of(
+            new Document("id", new Document("$lt", "user-1")),
+            new Document("id", null)))))
+        .toJson());
+  }
+
+  @Test
+  void afterLastPossibleRowMatchesNothing() {
+    Criteria after = UserCursor.after(new UserSort(UserSort.Field.USERNAME, true), Arrays.asList((Object) null));
+
+    assertThat(json(after)).isEqualTo(new Document("id", new Document("$exists", false)).toJson());
+  }
+
+  @Test
+  void afterRejectsCursorOfAnotherSort() {
+    UserSort sort = new UserSort(UserSort.Field.USER_TYPE, false);
+
+    assertThatThrownBy(() -> UserCursor.after(sort, List.of("ADMIN")))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private String json(Criteria criteria) {
+    return criteria.getCriteriaObject().toJson();
+  }
+}
@@ -0,0 +1,34 @@
+package com.sss.user.infrastructure.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class UserSearchTokensTest {
+
+  @Test
+  void indexesWholeEmailAndDomain() {
+    UserDocument user = new UserDocument();
+    user.setUsername("bob_smith");
+    user.setEmail("Bob.Smith@Example.com");
+
+    assertThat(UserSearchTokens.of(user))
+        .contains("b", "bob", "bobs", "smith", "email:bob.smith@example.com", "domain:example.com");
+  }
+
+  @Test
+  void exactTokenOfEmailOrDomainQueries() {
+    assertThat(UserSearchTokens.exactToken(" Bob.Smith@Example.com ")).isEqualTo("email:bob.smith@example.com");
+    assertThat(UserSearchTokens.exactToken("example.com")).isEqualTo("domain:example.com");
+    assertThat(UserSearchTokens.exactToken("@example.com")).isEqualTo("domain:example.com");
+    assertThat(UserSearchTokens.exactToken("bob")).isNull();
+    assertThat(UserSearchTokens.exactToken("bob smith.com")).isNull();
+    assertThat(UserSearchTokens.exactToken("bob@")).isNull();
+  }
+
+  @Test
+  void punctuationOnlyQueryHasNoTokens() {
+    assertThat(UserSearchTokens.queryTokens("!!! --")).isEmpty();
+    assertThat(UserSearchTokens.exactToken("!!! --")).isNull();
+  }
+}